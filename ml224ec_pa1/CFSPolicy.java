@@ -0,0 +1,101 @@
+/**
+ * Completely fair scheduler in the style of Linux CFS. Every process has a
+ * virtual runtime that grows slower the higher its weight, and the process
+ * with the lowest virtual runtime runs for up to one quantum. The weight comes
+ * from the priority column used as a nice value (-20 to 19).
+ */
+public class CFSPolicy implements SchedulingPolicy {
+
+	// Weight of nice 0, and the weights for nice -20 to 19 as used by Linux
+	private static final int NICE_0_WEIGHT = 1024;
+	private static final int[] NICE_TO_WEIGHT = {
+		88761, 71755, 56483, 46273, 36291,
+		29154, 23254, 18705, 14949, 11916,
+		9548, 7620, 6100, 4904, 3906,
+		3121, 2501, 1991, 1586, 1277,
+		1024, 820, 655, 526, 423,
+		335, 272, 215, 172, 137,
+		110, 87, 70, 56, 45,
+		36, 29, 23, 18, 15,
+	};
+
+	// Virtual runtime is kept in 1/1024ths of a time unit to limit rounding
+	private static final int VRUNTIME_SHIFT = 10;
+
+	private final int tq;
+
+	private ProcessTable table;
+	private RowTree tree;
+	private long[] vruntime;
+	private long minVruntime;
+
+	public CFSPolicy(int tq) {
+		if (tq < 1)
+			throw new IllegalArgumentException("Time quantum must be positive");
+		this.tq = tq;
+	}
+
+	@Override
+	public void reset(ProcessTable table) {
+		this.table = table;
+		tree = new RowTree(table.size());
+		vruntime = new long[table.size()];
+		minVruntime = 0;
+	}
+
+	@Override
+	public void arrive(int row, long time) {
+		// New processes start level with the least served ones
+		vruntime[row] = minVruntime;
+		tree.add(row, vruntime[row]);
+	}
+
+	@Override
+	public void requeue(int row, long time) {
+		tree.add(row, vruntime[row]);
+	}
+
+	@Override
+	public int select(long time) {
+		int row = tree.pollFirst();
+		if (row >= 0 && vruntime[row] > minVruntime)
+			minVruntime = vruntime[row];
+		return row;
+	}
+
+	@Override
+	public long quantum(int row) {
+		return tq;
+	}
+
+	@Override
+	public void ran(int row, long time, long duration) {
+		vruntime[row] += (duration << VRUNTIME_SHIFT) * NICE_0_WEIGHT / weight(row);
+	}
+
+	private int weight(int row) {
+		return niceToWeight(table.getPriority(row));
+	}
+
+	/**
+	 * Linux load weight of a nice value, clamped to -20 to 19
+	 */
+	static int niceToWeight(int nice) {
+		return NICE_TO_WEIGHT[Math.max(-20, Math.min(19, nice)) + 20];
+	}
+
+	@Override
+	public boolean preemptsOnArrival() {
+		return false;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return tree.isEmpty();
+	}
+
+	@Override
+	public String getName() {
+		return "CFS";
+	}
+}
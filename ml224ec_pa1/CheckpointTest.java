@@ -0,0 +1,73 @@
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+
+public class CheckpointTest {
+
+	@org.junit.Test
+	public void test1() throws IOException {
+		// Resuming from whatever checkpoint was written last gives the uninterrupted results
+		Path file = Files.createTempFile("rr", ".ckpt");
+		try {
+			for (WorkloadGenerator.Kind kind : WorkloadGenerator.Kind.values()) {
+				ProcessTable expected = WorkloadGenerator.generate(kind, 200000, 12);
+				TableRR uninterrupted = new TableRR(expected, 3);
+				uninterrupted.run();
+
+				ProcessTable table = WorkloadGenerator.generate(kind, 200000, 12);
+				TableRR checkpointed = new TableRR(table, 3);
+				Checkpointer checkpointer = new Checkpointer(file, 0);
+				checkpointed.setCheckpointer(checkpointer);
+				checkpointed.run();
+				checkpointer.close();
+				assertTrue(checkpointer.getWritten() > 0);
+
+				ProcessTable resumedTable = WorkloadGenerator.generate(kind, 200000, 12);
+				RunStatistics statistics = new RunStatistics();
+				TableRR resumed = new TableRR(resumedTable, 3);
+				resumed.setStatistics(statistics);
+				resumed.resume(file);
+
+				for (int i = 0; i < expected.size(); i++) {
+					assertEquals(expected.getCompletedTime(i), resumedTable.getCompletedTime(i));
+					assertEquals(expected.getTurnaroundTime(i), resumedTable.getTurnaroundTime(i));
+					assertEquals(expected.getWaitingTime(i), resumedTable.getWaitingTime(i));
+				}
+				assertEquals(uninterrupted.getContextSwitches(), resumed.getContextSwitches());
+				assertEquals(uninterrupted.getIdleTime(), resumed.getIdleTime());
+				assertEquals(expected.size(), statistics.getCount());
+			}
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@org.junit.Test
+	public void test2() throws IOException {
+		// A checkpoint only resumes the workload and TQ it was taken from
+		Path file = Files.createTempFile("rr", ".ckpt");
+		try {
+			TableRR scheduler = new TableRR(WorkloadGenerator.generate(WorkloadGenerator.Kind.UNIFORM, 10000, 1), 2);
+			Checkpointer checkpointer = new Checkpointer(file, 0);
+			scheduler.setCheckpointer(checkpointer);
+			scheduler.run();
+			checkpointer.close();
+
+			try {
+				new TableRR(WorkloadGenerator.generate(WorkloadGenerator.Kind.UNIFORM, 10000, 2), 2).resume(file);
+				fail("Resumed a different workload");
+			} catch (IOException e) {
+			}
+			try {
+				new TableRR(WorkloadGenerator.generate(WorkloadGenerator.Kind.UNIFORM, 10000, 1), 3).resume(file);
+				fail("Resumed with a different TQ");
+			} catch (IOException e) {
+			}
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+}
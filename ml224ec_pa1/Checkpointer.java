@@ -0,0 +1,225 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically saves the state of a running {@link TableRR} to a file, so a
+ * replay can be resumed with {@link TableRR#resume(Path)} after a crash.
+ *
+ * Taking a snapshot only copies the active processes on the simulation
+ * thread. Completed rows never change again, so a background thread writes
+ * them straight from the table while the simulation carries on. When the
+ * previous checkpoint is still being written the next one is skipped rather
+ * than waited for. Files are replaced atomically, a crash mid-write leaves
+ * the previous checkpoint intact.
+ *
+ * File format, all varints unless noted:
+ *
+ * header:  int magic "RRCK", int version, long workload fingerprint, int tq,
+ *          int rows, int next arrival, int current row, int last row,
+ *          long clock, long context switches, long idle time (fixed width)
+ * queue:   number of queued rows, the rows in queue order
+ * active:  remaining burst of each queued row, then of the current row
+ * done:    turnaround time of every completed row before next, in row order
+ */
+public class Checkpointer implements Closeable {
+
+	static final int MAGIC = 0x5252434B; // "RRCK"
+	static final int VERSION = 1;
+
+	// Look at the clock only this often, counted in scheduling decisions
+	private static final int CHECK_EVERY = 1024;
+
+	private final Path file;
+	private final long intervalNanos;
+	private final ExecutorService writer;
+
+	private int countdown = CHECK_EVERY;
+	private long lastSnapshot;
+	private Future<?> pending;
+	private volatile IOException failure;
+	private long written;
+	private long skipped;
+
+	/**
+	 * Checkpoint to file at most once every intervalMillis, 0 for as often as possible
+	 */
+	public Checkpointer(Path file, long intervalMillis) {
+		this.file = file;
+		this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+		lastSnapshot = System.nanoTime();
+		writer = Executors.newSingleThreadExecutor(r -> {
+			Thread t = new Thread(r, "checkpoint-writer");
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	/**
+	 * Cheap check made by the engine at every decision. A checkpoint that
+	 * falls due while the previous one is still being written is skipped,
+	 * so the engine does not even take the snapshot.
+	 */
+	boolean isDue() {
+		if (--countdown > 0)
+			return false;
+		countdown = CHECK_EVERY;
+		long now = System.nanoTime();
+		if (now - lastSnapshot < intervalNanos)
+			return false;
+		lastSnapshot = now;
+		if (pending != null && !pending.isDone())
+		{
+			skipped++;
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Hand a snapshot to the background writer
+	 */
+	void write(State state, ProcessTable table) {
+		pending = writer.submit(() -> {
+			try {
+				save(state, table);
+			} catch (IOException e) {
+				failure = e;
+			}
+		});
+		written++;
+	}
+
+	private void save(State state, ProcessTable table) throws IOException {
+		Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(state.fingerprint);
+			out.writeInt(state.tq);
+			out.writeInt(state.rows);
+			out.writeInt(state.next);
+			out.writeInt(state.current);
+			out.writeInt(state.last);
+			out.writeLong(state.clock);
+			out.writeLong(state.contextSwitches);
+			out.writeLong(state.idleTime);
+
+			Varint.writeUnsigned(out, state.queue.length);
+			for (int row : state.queue)
+				Varint.writeUnsigned(out, row);
+			for (long remaining : state.remaining)
+				Varint.writeUnsigned(out, remaining);
+
+			// Everything before next that is not active has completed
+			int[] active = state.activeRows();
+			for (int row = 0, a = 0; row < state.next; row++)
+			{
+				if (a < active.length && active[a] == row)
+				{
+					a++;
+					continue;
+				}
+				Varint.writeUnsigned(out, table.getTurnaroundTime(row));
+			}
+		}
+		Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	static State read(Path file) throws IOException {
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+			if (in.readInt() != MAGIC)
+				throw new IOException(file + " is not a checkpoint");
+			int version = in.readInt();
+			if (version != VERSION)
+				throw new IOException("Unsupported checkpoint version " + version);
+
+			State state = new State();
+			state.fingerprint = in.readLong();
+			state.tq = in.readInt();
+			state.rows = in.readInt();
+			state.next = in.readInt();
+			state.current = in.readInt();
+			state.last = in.readInt();
+			state.clock = in.readLong();
+			state.contextSwitches = in.readLong();
+			state.idleTime = in.readLong();
+
+			state.queue = new int[(int) Varint.readUnsigned(in)];
+			for (int i = 0; i < state.queue.length; i++)
+				state.queue[i] = (int) Varint.readUnsigned(in);
+			state.remaining = new long[state.queue.length + (state.current >= 0 ? 1 : 0)];
+			for (int i = 0; i < state.remaining.length; i++)
+				state.remaining[i] = Varint.readUnsigned(in);
+
+			int[] active = state.activeRows();
+			state.turnaround = new long[state.next - active.length];
+			for (int i = 0; i < state.turnaround.length; i++)
+				state.turnaround[i] = Varint.readUnsigned(in);
+			return state;
+		}
+	}
+
+	/**
+	 * Number of checkpoints handed to the writer, and skipped as it was busy
+	 */
+	public long getWritten() {
+		return written;
+	}
+
+	public long getSkipped() {
+		return skipped;
+	}
+
+	/**
+	 * Wait for the last checkpoint to be written and stop the writer
+	 */
+	@Override
+	public void close() throws IOException {
+		writer.shutdown();
+		try {
+			writer.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (failure != null)
+			throw failure;
+	}
+
+	/**
+	 * Engine state at a decision point. Completed rows are not copied.
+	 */
+	static final class State {
+		long fingerprint;
+		int tq;
+		int rows;
+		int next;        // rows before next have arrived
+		int current;     // row whose slice just ended unfinished, -1 if none
+		int last;        // row that ran last
+		long clock;
+		long contextSwitches;
+		long idleTime;
+		int[] queue;     // queued rows in order
+		long[] remaining; // remaining burst of the queued rows, then of current
+		long[] turnaround; // only when read, TAT of the completed rows in row order
+
+		int[] activeRows() {
+			int[] active = Arrays.copyOf(queue, queue.length + (current >= 0 ? 1 : 0));
+			if (current >= 0)
+				active[queue.length] = current;
+			Arrays.sort(active);
+			return active;
+		}
+	}
+}
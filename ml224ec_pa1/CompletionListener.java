@@ -0,0 +1,7 @@
+/**
+ * Receives the results of each process as soon as it completes
+ */
+public interface CompletionListener {
+
+	void completed(int pid, long arrivalTime, long burstTime, long completedTime);
+}
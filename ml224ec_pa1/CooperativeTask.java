@@ -0,0 +1,11 @@
+/**
+ * Work that an {@link RRExecutor} runs a slice at a time. A task does some
+ * of its work and returns, true once it is complete and false to be put at
+ * the back of the run queue. A task that checks slice.isExpired() as it
+ * goes and returns soon after it is time-sliced like a process under RR.
+ * One that does not is only requeued once it returns by itself.
+ */
+public interface CooperativeTask {
+
+	boolean run(RRExecutor.Slice slice);
+}
@@ -0,0 +1,356 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Coordinator of a sweep spread over worker JVMs, for grids too large for
+ * the cores of a single {@link Sweep}. Workers connect to it over TCP, every
+ * (workload, tq) combination is a job handed to the next idle worker, and
+ * results come back as one varint per process, see {@link SweepWorker}.
+ *
+ * launchWorkers() starts workers as child processes of this JVM on the same
+ * box. Workers on other hosts join by running SweepWorker with the address
+ * of a coordinator bound to a reachable interface.
+ *
+ * When a worker dies or its connection breaks, or it sends no heartbeat for
+ * the read timeout while running a job, the job it was running goes back to
+ * the front of the queue for another worker. A job that has failed
+ * on MAX_ATTEMPTS workers fails the sweep, rather than taking every worker
+ * down with it. Results are the same as those of Sweep.run().
+ */
+public class DistributedSweep implements Closeable {
+
+	static final int MAX_ATTEMPTS = 3;
+
+	// Silence after which a worker running a job is taken for stuck
+	static final int READ_TIMEOUT = 10 * SweepWorker.HEARTBEAT_MILLIS;
+
+	private final ServerSocket server;
+	private final Thread acceptor;
+	private final LinkedBlockingDeque<Job> jobs = new LinkedBlockingDeque<Job>();
+	private final List<Connection> connections = Collections.synchronizedList(new ArrayList<Connection>());
+	private final List<java.lang.Process> children = new ArrayList<java.lang.Process>();
+	private final AtomicInteger workloadIds = new AtomicInteger();
+	private final AtomicInteger resubmitted = new AtomicInteger();
+	private volatile boolean closed;
+	private volatile int readTimeout = READ_TIMEOUT;
+
+	/**
+	 * Coordinator on an ephemeral port of the loopback interface
+	 */
+	public DistributedSweep() throws IOException {
+		this(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+	}
+
+	/**
+	 * Coordinator listening on address, for workers on other hosts
+	 */
+	public DistributedSweep(InetSocketAddress address) throws IOException {
+		server = new ServerSocket();
+		server.bind(address);
+		acceptor = new Thread(this::accept, "sweep-coordinator");
+		acceptor.setDaemon(true);
+		acceptor.start();
+	}
+
+	public InetSocketAddress getAddress() {
+		return (InetSocketAddress) server.getLocalSocketAddress();
+	}
+
+	/**
+	 * Start workers as child JVMs on the class path of this one
+	 */
+	public void launchWorkers(int count) throws IOException {
+		String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+		InetSocketAddress address = getAddress();
+		for (int i = 0; i < count; i++)
+		{
+			ProcessBuilder builder = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+					"SweepWorker", address.getAddress().getHostAddress(), Integer.toString(address.getPort()));
+			builder.redirectOutput(ProcessBuilder.Redirect.INHERIT);
+			builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+			synchronized (children)
+			{
+				children.add(builder.start());
+			}
+		}
+	}
+
+	/**
+	 * Workers connected right now
+	 */
+	public int getWorkers() {
+		return connections.size();
+	}
+
+	/**
+	 * Jobs given to another worker after theirs failed, since the coordinator started
+	 */
+	public int getResubmitted() {
+		return resubmitted.get();
+	}
+
+	/**
+	 * Milliseconds without a reply or heartbeat before a job is given to
+	 * another worker, for connections made from now on
+	 */
+	void setReadTimeout(int readTimeout) {
+		this.readTimeout = readTimeout;
+	}
+
+	/**
+	 * Jobs waiting for a worker
+	 */
+	int getQueued() {
+		return jobs.size();
+	}
+
+	/**
+	 * Results are ordered by workload, then by time quantum in the given
+	 * order, like Sweep.run(). Blocks until every job is done, waiting for
+	 * workers to connect if need be.
+	 */
+	public synchronized List<SweepResult> run(List<Workload> workloads, int[] tqs) throws IOException {
+		for (int tq : tqs)
+			if (tq < 1)
+				throw new IllegalArgumentException("Time quantum must be positive");
+		if (closed)
+			throw new IOException("Coordinator is closed");
+
+		Batch batch = new Batch(workloads.size() * tqs.length);
+		IdentityHashMap<Workload, Integer> ids = new IdentityHashMap<Workload, Integer>();
+		for (int w = 0; w < workloads.size(); w++)
+		{
+			Workload workload = workloads.get(w);
+			Integer id = ids.get(workload);
+			if (id == null)
+			{
+				id = workloadIds.getAndIncrement();
+				ids.put(workload, id);
+			}
+			for (int t = 0; t < tqs.length; t++)
+				jobs.add(new Job(batch, w * tqs.length + t, workload, id, tqs[t]));
+		}
+
+		try {
+			synchronized (batch)
+			{
+				while (batch.remaining > 0 && batch.failure == null)
+				{
+					batch.wait(1000);
+					if (!hasWorkers())
+						batch.failure = new IOException("Every worker has exited");
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			batch.fail(new IOException("Interrupted while waiting for results"));
+		}
+		if (batch.failure != null)
+		{
+			jobs.removeIf(job -> job.batch == batch);
+			throw batch.failure;
+		}
+		return Collections.unmodifiableList(new ArrayList<SweepResult>(Arrays.asList(batch.results)));
+	}
+
+	// False once every launched worker has exited and none is connected
+	private boolean hasWorkers() {
+		if (!connections.isEmpty())
+			return true;
+		synchronized (children)
+		{
+			if (children.isEmpty())
+				return true; // workers may still come from other hosts
+			for (java.lang.Process child : children)
+				if (child.isAlive())
+					return true;
+		}
+		return false;
+	}
+
+	private void accept() {
+		while (!closed)
+		{
+			try {
+				Connection connection = new Connection(server.accept());
+				connections.add(connection);
+				connection.start();
+			} catch (IOException e) {
+				// Closed, or a connection that failed before it started
+			}
+		}
+	}
+
+	/**
+	 * Stop the workers, which exit once their connection is closed
+	 */
+	@Override
+	public void close() throws IOException {
+		closed = true;
+		server.close();
+		synchronized (connections)
+		{
+			for (Connection connection : connections)
+				connection.interrupt();
+		}
+		synchronized (children)
+		{
+			for (java.lang.Process child : children)
+			{
+				try {
+					if (!child.waitFor(5, TimeUnit.SECONDS))
+						child.destroyForcibly();
+				} catch (InterruptedException e) {
+					child.destroyForcibly();
+					Thread.currentThread().interrupt();
+				}
+			}
+			children.clear();
+		}
+	}
+
+	/**
+	 * Results of one call to run()
+	 */
+	private static final class Batch {
+		final SweepResult[] results;
+		int remaining;
+		volatile IOException failure;
+
+		Batch(int jobs) {
+			results = new SweepResult[jobs];
+			remaining = jobs;
+		}
+
+		synchronized void done(int index, SweepResult result) {
+			if (results[index] == null)
+			{
+				results[index] = result;
+				remaining--;
+			}
+			notifyAll();
+		}
+
+		synchronized void fail(IOException failure) {
+			if (this.failure == null)
+				this.failure = failure;
+			notifyAll();
+		}
+	}
+
+	private static final class Job {
+		final Batch batch;
+		final int index;
+		final Workload workload;
+		final int workloadId;
+		final int tq;
+		int attempts;
+
+		Job(Batch batch, int index, Workload workload, int workloadId, int tq) {
+			this.batch = batch;
+			this.index = index;
+			this.workload = workload;
+			this.workloadId = workloadId;
+			this.tq = tq;
+		}
+	}
+
+	/**
+	 * Feeds one worker a job at a time
+	 */
+	private final class Connection extends Thread {
+		private final Socket socket;
+		private final Map<Integer, Boolean> sent = SweepWorker.cache(); // workloads the worker still has
+
+		Connection(Socket socket) {
+			super("sweep-worker-" + socket.getRemoteSocketAddress());
+			this.socket = socket;
+			setDaemon(true);
+		}
+
+		@Override
+		public void run() {
+			Job job = null;
+			try {
+				socket.setTcpNoDelay(true);
+				socket.setSoTimeout(readTimeout);
+				DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 1 << 16));
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 16));
+				while (!closed)
+				{
+					job = jobs.take();
+					if (job.batch.failure != null)
+						continue;
+					if (sent.get(job.workloadId) == null)
+					{
+						sent.put(job.workloadId, Boolean.TRUE);
+						out.writeByte(SweepWorker.WORKLOAD);
+						out.writeInt(job.workloadId);
+						SweepWorker.writeWorkload(out, job.workload);
+					}
+					out.writeByte(SweepWorker.JOB);
+					out.writeLong(job.index);
+					out.writeInt(job.workloadId);
+					out.writeInt(job.tq);
+					out.flush();
+
+					int type = in.readUnsignedByte();
+					while (type == SweepWorker.HEARTBEAT)
+						type = in.readUnsignedByte();
+					if (type != SweepWorker.RESULT || in.readLong() != job.index)
+						throw new IOException("Unexpected reply from worker");
+					long contextSwitches = in.readLong();
+					long idleTime = in.readLong();
+					ProcessTable table = job.workload.toTable();
+					if (Varint.readUnsigned(in) != table.size())
+						throw new IOException("Result of the wrong size from worker");
+					for (int i = 0; i < table.size(); i++)
+						table.complete(i, table.getArrivalTime(i) + Varint.readUnsigned(in));
+					job.batch.done(job.index, SweepResult.of(job.workload.getName(), job.tq, table, contextSwitches, idleTime));
+					job = null;
+				}
+			} catch (IOException e) {
+				if (job != null)
+					retry(job, e);
+			} catch (InterruptedException e) {
+				// Closing
+			} finally {
+				connections.remove(this);
+				try {
+					socket.close();
+				} catch (IOException ignored) {
+				}
+			}
+		}
+
+		private void retry(Job job, IOException cause) {
+			if (++job.attempts >= MAX_ATTEMPTS)
+			{
+				IOException failure = new IOException(String.format("Job %s, TQ = %d failed on %d workers",
+						job.workload.getName(), job.tq, job.attempts), cause);
+				job.batch.fail(failure);
+				return;
+			}
+			resubmitted.incrementAndGet();
+			jobs.addFirst(job);
+		}
+	}
+}
@@ -0,0 +1,148 @@
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+
+public class DistributedSweepTest {
+
+	private static List<Workload> workloads() {
+		List<Workload> workloads = new ArrayList<Workload>();
+		workloads.add(Workload.of("uniform", WorkloadGenerator.generate(WorkloadGenerator.Kind.UNIFORM, 3000, 1)));
+		workloads.add(Workload.of("bursty", WorkloadGenerator.generate(WorkloadGenerator.Kind.BURSTY, 3000, 2)));
+		workloads.add(Workload.of("sparse", WorkloadGenerator.generate(WorkloadGenerator.Kind.SPARSE, 1000, 3)));
+		return workloads;
+	}
+
+	private static void assertSame(List<SweepResult> expected, List<SweepResult> actual) {
+		assertEquals(expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++)
+		{
+			assertEquals(expected.get(i).getWorkload(), actual.get(i).getWorkload());
+			assertEquals(expected.get(i).getTimeQuantum(), actual.get(i).getTimeQuantum());
+			assertEquals(expected.get(i).getAverageWaitingTime(), actual.get(i).getAverageWaitingTime(), 0);
+			assertEquals(expected.get(i).getMaxTurnaroundTime(), actual.get(i).getMaxTurnaroundTime());
+			assertEquals(expected.get(i).getContextSwitches(), actual.get(i).getContextSwitches());
+			assertEquals(expected.get(i).getIdleTime(), actual.get(i).getIdleTime());
+			assertEquals(expected.get(i).getWaitingTimePercentile(99), actual.get(i).getWaitingTimePercentile(99));
+		}
+	}
+
+	@org.junit.Test
+	public void test1() throws IOException {
+		// Child JVM workers give the same results as a local sweep, over several runs
+		List<Workload> workloads = workloads();
+		int[] tqs = new int[]{1, 2, 4, 8, 16};
+		try (DistributedSweep sweep = new DistributedSweep()) {
+			sweep.launchWorkers(2);
+			assertSame(Sweep.run(workloads, tqs), sweep.run(workloads, tqs));
+			assertSame(Sweep.run(workloads.subList(1, 2), new int[]{3}), sweep.run(workloads.subList(1, 2), new int[]{3}));
+			assertEquals(0, sweep.getResubmitted());
+		}
+	}
+
+	@org.junit.Test
+	public void test2() throws Exception {
+		// The job of a worker that drops out is run by another one
+		List<Workload> workloads = workloads();
+		int[] tqs = new int[]{2, 5};
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try (DistributedSweep sweep = new DistributedSweep()) {
+			Socket broken = new Socket(sweep.getAddress().getAddress(), sweep.getAddress().getPort());
+			while (sweep.getWorkers() == 0)
+				Thread.sleep(10);
+
+			Future<List<SweepResult>> results = executor.submit(() -> sweep.run(workloads, tqs));
+			InputStream in = broken.getInputStream();
+			assertEquals(SweepWorker.WORKLOAD, in.read());
+			broken.close();
+
+			sweep.launchWorkers(1);
+			assertSame(Sweep.run(workloads, tqs), results.get());
+			assertEquals(1, sweep.getResubmitted());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@org.junit.Test
+	public void test3() throws Exception {
+		// A job that breaks every worker fails the sweep instead of looping
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try (DistributedSweep sweep = new DistributedSweep()) {
+			Future<List<SweepResult>> results = executor.submit(() -> sweep.run(workloads().subList(0, 1), new int[]{4}));
+			for (int i = 0; i < DistributedSweep.MAX_ATTEMPTS; i++)
+			{
+				try (Socket broken = new Socket(sweep.getAddress().getAddress(), sweep.getAddress().getPort())) {
+					assertEquals(SweepWorker.WORKLOAD, broken.getInputStream().read());
+				}
+			}
+			try {
+				results.get();
+				fail("Sweep succeeded without a working worker");
+			} catch (java.util.concurrent.ExecutionException e) {
+				assertTrue(e.getCause() instanceof IOException);
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@org.junit.Test
+	public void test4() throws Exception {
+		// A job given back after its worker dropped out goes to a worker that has since forgotten the workload
+		List<Workload> workloads = new ArrayList<Workload>();
+		for (int i = 0; i < 80; i++)
+			workloads.add(Workload.of("w" + i, WorkloadGenerator.generate(WorkloadGenerator.Kind.UNIFORM, 50, i)));
+		int[] tqs = new int[]{2, 5};
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try (DistributedSweep sweep = new DistributedSweep()) {
+			Socket broken = new Socket(sweep.getAddress().getAddress(), sweep.getAddress().getPort());
+			while (sweep.getWorkers() == 0)
+				Thread.sleep(10);
+
+			// The broken worker holds on to the first job, the other one gets the second job of the same workload and every later one
+			Future<List<SweepResult>> results = executor.submit(() -> sweep.run(workloads, tqs));
+			InputStream in = broken.getInputStream();
+			assertEquals(SweepWorker.WORKLOAD, in.read());
+			sweep.launchWorkers(1);
+			while (sweep.getQueued() > 0)
+				Thread.sleep(10);
+			broken.close();
+
+			assertSame(Sweep.run(workloads, tqs), results.get());
+			assertEquals(1, sweep.getResubmitted());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@org.junit.Test
+	public void test5() throws Exception {
+		// The job of a worker that stays connected but stops answering is run by another one
+		List<Workload> workloads = workloads();
+		int[] tqs = new int[]{2, 5};
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try (DistributedSweep sweep = new DistributedSweep()) {
+			sweep.setReadTimeout(3 * SweepWorker.HEARTBEAT_MILLIS);
+			try (Socket stuck = new Socket(sweep.getAddress().getAddress(), sweep.getAddress().getPort())) {
+				while (sweep.getWorkers() == 0)
+					Thread.sleep(10);
+
+				Future<List<SweepResult>> results = executor.submit(() -> sweep.run(workloads, tqs));
+				assertEquals(SweepWorker.WORKLOAD, stuck.getInputStream().read());
+				sweep.launchWorkers(1);
+				assertSame(Sweep.run(workloads, tqs), results.get());
+				assertEquals(1, sweep.getResubmitted());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+}
@@ -0,0 +1,254 @@
+import java.util.Arrays;
+
+/**
+ * Growable, primitive log of scheduling slices for Gantt charts. Each event is
+ * a process id and a [start, end) time range, stored in parallel columns so
+ * that recording a slice never allocates in the steady state. The columns
+ * live on the heap by default, or off the heap in a {@link Storage}.
+ *
+ * A slice that directly continues the previous one for the same process (or
+ * idle time following idle time) is merged into it.
+ *
+ * Whole round robin rounds can be recorded as a single round event: the same
+ * k processes each running one slice in turn, repeated a number of times.
+ * Round events have the pid {@link #ROUNDS}, and {@link #expand()} turns them
+ * back into plain slices.
+ */
+public class EventLog {
+
+	// Process id used for time where the CPU had nothing to run
+	public static final int IDLE = -1;
+
+	// Process id of a round event
+	public static final int ROUNDS = -2;
+
+	private final Storage storage;
+	private int size;
+	private int capacity;
+	private final IntColumn pids;
+	private final LongColumn starts;
+	private final LongColumn ends;
+
+	// Round events, allocated with the first one. roundIndex maps an event to its round,
+	// the rounds themselves are few and kept on the heap.
+	private IntColumn roundIndex;
+	private int rounds;
+	private int[] roundOffsets;
+	private int[] roundSizes;
+	private long[] roundSlices;
+	private int[] roundPids;
+	private int roundPidCount;
+
+	public EventLog() {
+		this(64);
+	}
+
+	public EventLog(int capacity) {
+		this(capacity, Storage.HEAP);
+	}
+
+	public EventLog(int capacity, Storage storage) {
+		if (capacity < 1)
+			capacity = 1;
+		this.storage = storage;
+		this.capacity = capacity;
+		pids = storage.ints(capacity);
+		starts = storage.longs(capacity);
+		ends = storage.longs(capacity);
+	}
+
+	/**
+	 * Record that pid ran from start until end
+	 */
+	public void add(int pid, long start, long end) {
+		if (size > 0)
+		{
+			int last = size - 1;
+			if (pids.get(last) == pid && ends.get(last) == start && pid != ROUNDS)
+			{
+				ends.set(last, end);
+				return;
+			}
+		}
+
+		if (size == capacity)
+		{
+			capacity = (int) Math.min(Integer.MAX_VALUE - 8, size + (size >> 1) + 1L);
+			pids.grow(capacity);
+			starts.grow(capacity);
+			ends.grow(capacity);
+			if (roundIndex != null)
+				roundIndex.grow(capacity);
+		}
+
+		pids.set(size, pid);
+		starts.set(size, start);
+		ends.set(size, end);
+		size++;
+	}
+
+	public void addIdle(long start, long end) {
+		add(IDLE, start, end);
+	}
+
+	/**
+	 * Record count processes from pids[from], each running slice time units in
+	 * turn starting at start, repeated rounds times. A single process is
+	 * recorded as one plain slice.
+	 */
+	public void addRounds(int[] pids, int from, int count, long start, long slice, long rounds) {
+		long end = start + (long) count * slice * rounds;
+		if (count == 1)
+		{
+			add(pids[from], start, end);
+			return;
+		}
+
+		if (roundIndex == null)
+		{
+			roundIndex = storage.ints(capacity);
+			roundOffsets = new int[16];
+			roundSizes = new int[16];
+			roundSlices = new long[16];
+			roundPids = new int[64];
+		}
+		if (this.rounds == roundOffsets.length)
+		{
+			int capacity = this.rounds * 2;
+			roundOffsets = Arrays.copyOf(roundOffsets, capacity);
+			roundSizes = Arrays.copyOf(roundSizes, capacity);
+			roundSlices = Arrays.copyOf(roundSlices, capacity);
+		}
+		if (roundPidCount + count > roundPids.length)
+			roundPids = Arrays.copyOf(roundPids, Math.max(roundPids.length * 2, roundPidCount + count));
+
+		System.arraycopy(pids, from, roundPids, roundPidCount, count);
+		roundOffsets[this.rounds] = roundPidCount;
+		roundSizes[this.rounds] = count;
+		roundSlices[this.rounds] = slice;
+		roundPidCount += count;
+
+		add(ROUNDS, start, end);
+		roundIndex.set(size - 1, this.rounds++);
+	}
+
+	public Storage getStorage() {
+		return storage;
+	}
+
+	public void clear() {
+		size = 0;
+		rounds = 0;
+		roundPidCount = 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public int getPid(int index) {
+		return pids.get(index);
+	}
+
+	public long getStart(int index) {
+		return starts.get(index);
+	}
+
+	public long getEnd(int index) {
+		return ends.get(index);
+	}
+
+	public boolean isIdle(int index) {
+		return pids.get(index) == IDLE;
+	}
+
+	public boolean isRounds(int index) {
+		return pids.get(index) == ROUNDS;
+	}
+
+	/**
+	 * Number of processes taking turns in a round event
+	 */
+	public int getRoundSize(int index) {
+		return roundSizes[roundIndex.get(index)];
+	}
+
+	/**
+	 * The i:th process to run in every round of a round event
+	 */
+	public int getRoundPid(int index, int i) {
+		int round = roundIndex.get(index);
+		return roundPids[roundOffsets[round] + i];
+	}
+
+	/**
+	 * Length of each slice of a round event
+	 */
+	public long getRoundSlice(int index) {
+		return roundSlices[roundIndex.get(index)];
+	}
+
+	/**
+	 * Copy of the log with every round event written out slice by slice
+	 */
+	public EventLog expand() {
+		EventLog log = new EventLog(size);
+		for (int i = 0; i < size; i++)
+		{
+			if (pids.get(i) != ROUNDS)
+			{
+				log.add(pids.get(i), starts.get(i), ends.get(i));
+				continue;
+			}
+			int k = getRoundSize(i);
+			long slice = getRoundSlice(i);
+			for (long t = starts.get(i); t < ends.get(i);)
+				for (int j = 0; j < k; j++, t += slice)
+					log.add(getRoundPid(i, j), t, t + slice);
+		}
+		return log;
+	}
+
+	/**
+	 * End of the last recorded event, or 0 for an empty log
+	 */
+	public long getEndTime() {
+		return size > 0 ? ends.get(size-1) : 0;
+	}
+
+	public Cursor cursor() {
+		return new Cursor();
+	}
+
+	/**
+	 * Forward iterator over the events, read through primitive accessors:
+	 *
+	 * for (EventLog.Cursor c = log.cursor(); c.next();)
+	 *     use(c.pid(), c.start(), c.end());
+	 *
+	 * Round events are passed as they are, iterate over expand() for plain slices.
+	 */
+	public class Cursor {
+		private int index = -1;
+
+		public boolean next() {
+			return ++index < size;
+		}
+
+		public int pid() {
+			return pids.get(index);
+		}
+
+		public long start() {
+			return starts.get(index);
+		}
+
+		public long end() {
+			return ends.get(index);
+		}
+
+		public boolean isIdle() {
+			return pids.get(index) == IDLE;
+		}
+	}
+}
@@ -0,0 +1,48 @@
+/**
+ * First come, first served. Processes run to completion in order of arrival.
+ */
+public class FCFSPolicy implements SchedulingPolicy {
+
+	private final IntQueue queue = new IntQueue();
+
+	@Override
+	public void reset(ProcessTable table) {
+		queue.clear();
+	}
+
+	@Override
+	public void arrive(int row, long time) {
+		queue.add(row);
+	}
+
+	@Override
+	public void requeue(int row, long time) {
+		// Never preempted, but keep it first should it happen
+		queue.addFirst(row);
+	}
+
+	@Override
+	public int select(long time) {
+		return queue.isEmpty() ? -1 : queue.poll();
+	}
+
+	@Override
+	public long quantum(int row) {
+		return Long.MAX_VALUE;
+	}
+
+	@Override
+	public boolean preemptsOnArrival() {
+		return false;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return queue.isEmpty();
+	}
+
+	@Override
+	public String getName() {
+		return "FCFS";
+	}
+}
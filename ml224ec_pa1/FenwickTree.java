@@ -0,0 +1,94 @@
+import java.util.Arrays;
+
+/**
+ * Fenwick (binary indexed) tree of non-negative long values, one per process
+ * row. Changing a value, a prefix sum and finding the row a running sum falls
+ * in all take O(log n), which is what drawing a lottery ticket out of
+ * thousands of processes needs.
+ */
+public class FenwickTree {
+
+	private long[] tree;  // 1-based, tree[i] sums the values of rows i - (i & -i) to i - 1
+	private long[] values;
+	private long total;
+
+	public FenwickTree(int rows) {
+		tree = new long[Math.max(rows, 1) + 1];
+		values = new long[Math.max(rows, 1)];
+	}
+
+	/**
+	 * Set the value of a row, 0 takes it out of the draw
+	 */
+	public void set(int row, long value) {
+		if (value < 0)
+			throw new IllegalArgumentException("Value must not be negative");
+		ensureRows(row + 1);
+		long delta = value - values[row];
+		if (delta == 0)
+			return;
+		values[row] = value;
+		total += delta;
+		for (int i = row + 1; i < tree.length; i += i & -i)
+			tree[i] += delta;
+	}
+
+	public long get(int row) {
+		return row < values.length ? values[row] : 0;
+	}
+
+	/**
+	 * Sum of the values of the rows below row
+	 */
+	public long prefix(int row) {
+		long sum = 0;
+		for (int i = Math.min(row, values.length); i > 0; i -= i & -i)
+			sum += tree[i];
+		return sum;
+	}
+
+	public long getTotal() {
+		return total;
+	}
+
+	/**
+	 * Row whose share of the running sum holds target, the lowest row with
+	 * prefix(row + 1) > target, for 0 <= target < getTotal()
+	 */
+	public int find(long target) {
+		if (target < 0 || target >= total)
+			throw new IllegalArgumentException("Target out of range: " + target);
+		int i = 0;
+		for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1)
+		{
+			int next = i + step;
+			if (next < tree.length && tree[next] <= target)
+			{
+				i = next;
+				target -= tree[next];
+			}
+		}
+		return i;
+	}
+
+	public void clear() {
+		Arrays.fill(tree, 0);
+		Arrays.fill(values, 0);
+		total = 0;
+	}
+
+	private void ensureRows(int rows) {
+		if (rows <= values.length)
+			return;
+		// Rebuilt in O(n) rather than patched, the ranges of the old nodes change
+		values = Arrays.copyOf(values, Math.max(rows, values.length * 2));
+		tree = new long[values.length + 1];
+		for (int i = 1; i < tree.length; i++)
+		{
+			tree[i] += values[i - 1];
+			int parent = i + (i & -i);
+			if (parent < tree.length)
+				tree[parent] += tree[i];
+		}
+	}
+}
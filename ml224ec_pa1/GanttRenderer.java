@@ -0,0 +1,292 @@
+import java.io.IOException;
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * Streams a text Gantt chart of an {@link EventLog} to any Appendable.
+ *
+ * Every row is one process, every column covers scale time units. A column is
+ * drawn '=' when the process ran for the whole column and '-' when it only ran
+ * for part of it, unoccupied space has a '|' every 5th column.
+ *
+ * The chart is rendered a block of rows at a time into a fixed size buffer,
+ * so memory stays bounded no matter how many events or processes there are.
+ * The event log must be in time order, as every engine here records it.
+ */
+public class GanttRenderer {
+
+	// Upper bound on the number of chart cells buffered at once
+	private static final int BUFFER_CELLS = 1 << 20;
+
+	private final EventLog log;
+
+	private long from = 0;
+	private long to = -1; // negative means up to the end of the log
+	private long minWidth = 0;
+	private int scale = 1;
+	private int[] pids = null; // null means every process in the window
+	private String label = "";
+
+	public GanttRenderer(EventLog log) {
+		this.log = log;
+	}
+
+	/**
+	 * Only draw time in [from, to), a negative to draws until the last event
+	 */
+	public GanttRenderer setWindow(long from, long to) {
+		if (from < 0 || (to >= 0 && to < from))
+			throw new IllegalArgumentException("Invalid window");
+		this.from = from;
+		this.to = to;
+		return this;
+	}
+
+	/**
+	 * Pad the chart to at least this many time units
+	 */
+	public GanttRenderer setMinimumWidth(long minWidth) {
+		this.minWidth = minWidth;
+		return this;
+	}
+
+	/**
+	 * Let each column cover scale time units
+	 */
+	public GanttRenderer setScale(int scale) {
+		if (scale < 1)
+			throw new IllegalArgumentException("Scale must be positive");
+		this.scale = scale;
+		return this;
+	}
+
+	/**
+	 * Only draw rows for these process ids, null for all of them
+	 */
+	public GanttRenderer setPids(int[] pids) {
+		if (pids == null)
+			this.pids = null;
+		else
+		{
+			this.pids = pids.clone();
+			Arrays.sort(this.pids);
+		}
+		return this;
+	}
+
+	/**
+	 * Text in front of the time ruler, e.g. the time quantum
+	 */
+	public GanttRenderer setLabel(String label) {
+		this.label = label;
+		return this;
+	}
+
+	public void render(Appendable out) throws IOException {
+		long end = to >= 0 ? to : Math.max(log.getEndTime(), from);
+		end = Math.max(end, from + minWidth);
+		long width = (end - from + scale - 1) / scale;
+
+		int first = firstEventAfter(from);
+		int[] rows = pids != null ? pids : collectPids(first, end);
+
+		// Time ruler, every dot is one column and every 5th a comma
+		out.append(label).append("\t. ");
+		char[] ruler = new char[(int) Math.min(width, BUFFER_CELLS)];
+		for (long c0 = 0; c0 < width; c0 += ruler.length)
+		{
+			int len = (int) Math.min(ruler.length, width - c0);
+			for (int i = 0; i < len; i++)
+				ruler[i] = (c0 + i + 1) % 5 == 0 ? ',' : '.';
+			out.append(CharBuffer.wrap(ruler, 0, len));
+		}
+		out.append('\n');
+
+		if (rows.length == 0 || width == 0)
+			return;
+
+		/*
+		 * Narrow charts are drawn many rows at a time with a single column chunk,
+		 * wide charts one row at a time split into several column chunks.
+		 */
+		int chunk = (int) Math.min(width, BUFFER_CELLS);
+		int block = Math.max(1, BUFFER_CELLS / chunk);
+		char[] cells = new char[block * chunk];
+
+		for (int r0 = 0; r0 < rows.length; r0 += block)
+		{
+			int nRows = Math.min(block, rows.length - r0);
+			boolean split = chunk < width;
+
+			if (split)
+				appendPrefix(out, rows[r0]);
+
+			for (long c0 = 0; c0 < width; c0 += chunk)
+			{
+				int nCols = (int) Math.min(chunk, width - c0);
+				fill(cells, rows, r0, nRows, c0, nCols, chunk);
+
+				if (split)
+					out.append(CharBuffer.wrap(cells, 0, nCols));
+				else
+					for (int r = 0; r < nRows; r++)
+					{
+						appendPrefix(out, rows[r0 + r]);
+						out.append(CharBuffer.wrap(cells, r * chunk, nCols)).append('\n');
+					}
+			}
+
+			if (split)
+				out.append('\n');
+		}
+	}
+
+	private static void appendPrefix(Appendable out, int pid) throws IOException {
+		out.append("PID ").append(Integer.toString(pid)).append("\t: ");
+	}
+
+	/**
+	 * Draw columns [c0, c0 + nCols) of rows [r0, r0 + nRows) into the cell buffer
+	 */
+	private void fill(char[] cells, int[] rows, int r0, int nRows, long c0, int nCols, int stride) {
+		for (int r = 0; r < nRows; r++)
+		{
+			int base = r * stride;
+			for (int c = 0; c < nCols; c++)
+				cells[base + c] = (c0 + c + 1) % 5 == 0 ? '|' : ' ';
+		}
+
+		long t0 = from + c0 * scale;
+		long t1 = t0 + (long) nCols * scale;
+		int rowLo = rows[r0], rowHi = rows[r0 + nRows - 1];
+
+		for (int i = firstEventAfter(t0); i < log.size(); i++)
+		{
+			long s = log.getStart(i);
+			if (s >= t1)
+				break;
+			int pid = log.getPid(i);
+			if (pid == EventLog.ROUNDS)
+			{
+				fillRounds(cells, rows, r0, nRows, stride, i, t0, t1);
+				continue;
+			}
+			if (pid == EventLog.IDLE || pid < rowLo || pid > rowHi)
+				continue;
+			int r = Arrays.binarySearch(rows, r0, r0 + nRows, pid);
+			if (r < 0)
+				continue;
+
+			// Clip to the chunk and convert to columns relative to it
+			mark(cells, (r - r0) * stride, Math.max(s, t0) - t0, Math.min(log.getEnd(i), t1) - t0);
+		}
+	}
+
+	/**
+	 * Draw the slices of a round event within [t0, t1). Slices that share a
+	 * column are skipped, so the work is bounded by the number of columns.
+	 */
+	private void fillRounds(char[] cells, int[] rows, int r0, int nRows, int stride, int event, long t0, long t1) {
+		long start = log.getStart(event);
+		long end = Math.min(log.getEnd(event), t1);
+		int k = log.getRoundSize(event);
+		long slice = log.getRoundSlice(event);
+		long period = k * slice;
+
+		for (int j = 0; j < k; j++)
+		{
+			int r = Arrays.binarySearch(rows, r0, r0 + nRows, log.getRoundPid(event, j));
+			if (r < 0)
+				continue;
+			int base = (r - r0) * stride;
+
+			// Slice m of this process starts at first + m * period
+			long first = start + j * slice;
+			long m = t0 > first ? (t0 - first) / period : 0;
+			for (long ss = first + m * period; ss < end; ss = first + m * period)
+			{
+				long s = Math.max(ss, t0) - t0;
+				long e = Math.min(ss + slice, end) - t0;
+				if (e <= s)
+				{
+					m++;
+					continue;
+				}
+				mark(cells, base, s, e);
+
+				// Jump to the slice reaching past the last column drawn
+				long next = ((e - 1) / scale + 1) * scale + t0;
+				m = Math.max(m + 1, (next - first - slice) / period + 1);
+			}
+		}
+	}
+
+	/**
+	 * Draw time [s, e) relative to the chunk into the row starting at base
+	 */
+	private void mark(char[] cells, int base, long s, long e) {
+		int cs = (int) (s / scale);
+		int ce = (int) ((e - 1) / scale);
+		for (int c = cs; c <= ce; c++)
+		{
+			boolean full = s <= (long) c * scale && e >= (long) (c + 1) * scale;
+			if (full)
+				cells[base + c] = '=';
+			else if (cells[base + c] != '=')
+				cells[base + c] = '-';
+		}
+	}
+
+	/**
+	 * Index of the first event ending after time, size() when there is none
+	 */
+	private int firstEventAfter(long time) {
+		int lo = 0, hi = log.size();
+		while (lo < hi)
+		{
+			int mid = (lo + hi) >>> 1;
+			if (log.getEnd(mid) > time)
+				hi = mid;
+			else
+				lo = mid + 1;
+		}
+		return lo;
+	}
+
+	/**
+	 * Sorted, distinct process ids of all events in [from, end). Duplicates are
+	 * squeezed out whenever the buffer fills up, so it only grows with the
+	 * number of distinct processes.
+	 */
+	private int[] collectPids(int first, long end) {
+		int[] ids = new int[16];
+		int n = 0;
+		for (int i = first; i < log.size() && log.getStart(i) < end; i++)
+		{
+			int pid = log.getPid(i);
+			if (pid == EventLog.IDLE)
+				continue;
+			int k = pid == EventLog.ROUNDS ? log.getRoundSize(i) : 1;
+			for (int j = 0; j < k; j++)
+			{
+				if (n == ids.length)
+				{
+					n = sortUnique(ids, n);
+					if (n > ids.length / 2)
+						ids = Arrays.copyOf(ids, ids.length * 2);
+				}
+				ids[n++] = k > 1 ? log.getRoundPid(i, j) : pid;
+			}
+		}
+		return Arrays.copyOf(ids, sortUnique(ids, n));
+	}
+
+	private static int sortUnique(int[] ids, int n) {
+		Arrays.sort(ids, 0, n);
+		int m = 0;
+		for (int i = 0; i < n; i++)
+			if (m == 0 || ids[m-1] != ids[i])
+				ids[m++] = ids[i];
+		return m;
+	}
+}
@@ -0,0 +1,75 @@
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+
+
+public class GanttRendererTest {
+
+	@org.junit.Test
+	public void test1() throws IOException {
+		// Sparse process ids get their own rows
+		EventLog log = new EventLog();
+		log.add(7, 0, 3);
+		log.addIdle(3, 5);
+		log.add(1000, 5, 9);
+
+		StringBuilder sb = new StringBuilder();
+		new GanttRenderer(log).render(sb);
+
+		assertEquals("\t. ....,....\n"
+				+ "PID 7\t: === |    \n"
+				+ "PID 1000\t:     |====\n", sb.toString());
+	}
+
+	@org.junit.Test
+	public void test2() throws IOException {
+		// Time window and pid subset
+		EventLog log = new EventLog();
+		log.add(7, 0, 3);
+		log.addIdle(3, 5);
+		log.add(1000, 5, 9);
+
+		StringBuilder sb = new StringBuilder();
+		new GanttRenderer(log).setWindow(2, 8).setPids(new int[]{1000}).render(sb);
+
+		assertEquals("\t. ....,.\n"
+				+ "PID 1000\t:    ===\n", sb.toString());
+	}
+
+	@org.junit.Test
+	public void test3() throws IOException {
+		// Downsampled, partially used columns are drawn as '-'
+		EventLog log = new EventLog();
+		log.add(7, 0, 3);
+		log.addIdle(3, 5);
+		log.add(1000, 5, 9);
+
+		StringBuilder sb = new StringBuilder();
+		new GanttRenderer(log).setScale(2).setLabel("k = 2").render(sb);
+
+		assertEquals("k = 2\t. ....,\n"
+				+ "PID 7\t: =-  |\n"
+				+ "PID 1000\t:   -=-\n", sb.toString());
+	}
+
+	@org.junit.Test
+	public void test4() throws IOException {
+		// Round events draw exactly like the slices they stand for, at any scale and window
+		EventLog log = new EventLog();
+		log.add(1, 0, 3);
+		log.addRounds(new int[]{2, 1, 3}, 0, 3, 3, 2, 40);
+		log.add(2, 243, 250);
+		log.addRounds(new int[]{4, 5}, 0, 2, 260, 7, 9);
+		EventLog expanded = log.expand();
+
+		for (int scale = 1; scale <= 20; scale++) {
+			for (long from = 0; from < 300; from += 37) {
+				StringBuilder expected = new StringBuilder();
+				new GanttRenderer(expanded).setScale(scale).setWindow(from, -1).render(expected);
+				StringBuilder actual = new StringBuilder();
+				new GanttRenderer(log).setScale(scale).setWindow(from, -1).render(actual);
+				assertEquals(expected.toString(), actual.toString());
+			}
+		}
+	}
+}
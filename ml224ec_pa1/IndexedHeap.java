@@ -0,0 +1,148 @@
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of process rows keyed by a long, with ties broken by the
+ * lower row (the earlier arrival). The position of every row is indexed, so
+ * a row can be removed or have its key changed in O(log n).
+ */
+public class IndexedHeap {
+
+	private int size;
+	private int[] heap;     // heap position -> row
+	private int[] position; // row -> heap position, -1 when not in the heap
+	private long[] keys;    // row -> key
+
+	public IndexedHeap(int rows) {
+		heap = new int[Math.max(rows, 1)];
+		position = new int[Math.max(rows, 1)];
+		keys = new long[Math.max(rows, 1)];
+		Arrays.fill(position, -1);
+	}
+
+	public void add(int row, long key) {
+		ensureRows(row + 1);
+		keys[row] = key;
+		heap[size] = row;
+		position[row] = size;
+		siftUp(size++);
+	}
+
+	/**
+	 * Remove and return the row with the lowest key, -1 when empty
+	 */
+	public int poll() {
+		if (size == 0)
+			return -1;
+		int row = heap[0];
+		removeAt(0);
+		return row;
+	}
+
+	public int peek() {
+		return size > 0 ? heap[0] : -1;
+	}
+
+	public long peekKey() {
+		return keys[heap[0]];
+	}
+
+	public boolean contains(int row) {
+		return row < position.length && position[row] >= 0;
+	}
+
+	public void remove(int row) {
+		if (contains(row))
+			removeAt(position[row]);
+	}
+
+	/**
+	 * Change the key of a row already in the heap
+	 */
+	public void update(int row, long key) {
+		long old = keys[row];
+		keys[row] = key;
+		if (key < old)
+			siftUp(position[row]);
+		else
+			siftDown(position[row]);
+	}
+
+	public long getKey(int row) {
+		return keys[row];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		for (int i = 0; i < size; i++)
+			position[heap[i]] = -1;
+		size = 0;
+	}
+
+	private void removeAt(int i) {
+		int row = heap[i];
+		position[row] = -1;
+		if (--size == i)
+			return;
+		heap[i] = heap[size];
+		position[heap[i]] = i;
+		siftDown(i);
+		siftUp(i);
+	}
+
+	private boolean less(int a, int b) {
+		long ka = keys[a], kb = keys[b];
+		return ka < kb || (ka == kb && a < b);
+	}
+
+	private void siftUp(int i) {
+		int row = heap[i];
+		while (i > 0)
+		{
+			int parent = (i - 1) >>> 1;
+			if (!less(row, heap[parent]))
+				break;
+			heap[i] = heap[parent];
+			position[heap[i]] = i;
+			i = parent;
+		}
+		heap[i] = row;
+		position[row] = i;
+	}
+
+	private void siftDown(int i) {
+		int row = heap[i];
+		while (true)
+		{
+			int child = 2 * i + 1;
+			if (child >= size)
+				break;
+			if (child + 1 < size && less(heap[child + 1], heap[child]))
+				child++;
+			if (!less(heap[child], row))
+				break;
+			heap[i] = heap[child];
+			position[heap[i]] = i;
+			i = child;
+		}
+		heap[i] = row;
+		position[row] = i;
+	}
+
+	private void ensureRows(int rows) {
+		if (rows <= position.length)
+			return;
+		int capacity = Math.max(rows, position.length * 2);
+		heap = Arrays.copyOf(heap, capacity);
+		keys = Arrays.copyOf(keys, capacity);
+		int old = position.length;
+		position = Arrays.copyOf(position, capacity);
+		Arrays.fill(position, old, capacity, -1);
+	}
+}
@@ -0,0 +1,421 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Counters and gauges of what happens inside a scheduler loop, for
+ * {@link RR} and {@link TableRR}. Engines without instrumentation pay a
+ * single null check per hook.
+ *
+ * Counting is always on. Wall-clock timing of arrival handling against
+ * dispatching reads System.nanoTime() twice per decision, so it is only done
+ * after setTiming(true). With setEvents(true) dispatches and completions are
+ * also emitted as JFR events, which cost next to nothing unless a recording
+ * enables them:
+ *
+ * java -XX:StartFlightRecording=filename=rr.jfr,settings=profile ...
+ *
+ * and the "Scheduler" category of the recording shows them in JDK Mission
+ * Control next to the usual CPU and allocation profile.
+ *
+ * The counters are plain fields of the simulating thread. For a live view
+ * from another thread, publishTo() has every decision also copy the simulated
+ * clock and a few counters into an array with release stores, every 64
+ * decisions and at every completion. That costs the loop a few plain stores
+ * and never a lock, and they are served from a {@link MetricsServer}.
+ */
+public class Instrumentation implements CompletionListener {
+
+	private boolean timing;
+	private boolean events;
+
+	// Counters
+	private long decisions;
+	private long dispatches;
+	private long contextSwitches;
+	private long arrivals;
+	private long completions;
+	private long idlePeriods;
+	private long idleTime;
+	private long busyTime;
+
+	// Gauges of the run queue
+	private int queueDepth;
+	private int maxQueueDepth;
+	private long queueDepthSum; // over dispatches
+
+	// Wall-clock time
+	private long arrivalNanos;
+	private long dispatchNanos;
+	private long mark;
+
+	private int lastPid = -1;
+
+	// Snapshot for other threads, null unless published
+	private static final int CLOCK = 0, DECISIONS = 1, DISPATCHES = 2, COMPLETIONS = 3, QUEUE_DEPTH = 4, IDLE_TIME = 5;
+	private AtomicLongArray live;
+	private static final int PUBLISH_MASK = 63; // publish every 64 decisions, and at every completion
+
+	public Instrumentation() {
+	}
+
+	/**
+	 * Measure the wall-clock time spent handling arrivals and dispatching
+	 */
+	public Instrumentation setTiming(boolean timing) {
+		this.timing = timing;
+		return this;
+	}
+
+	/**
+	 * Emit JFR events for dispatches and completions
+	 */
+	public Instrumentation setEvents(boolean events) {
+		this.events = events;
+		return this;
+	}
+
+	public void reset() {
+		decisions = 0;
+		dispatches = 0;
+		contextSwitches = 0;
+		arrivals = 0;
+		completions = 0;
+		idlePeriods = 0;
+		idleTime = 0;
+		busyTime = 0;
+		queueDepth = 0;
+		maxQueueDepth = 0;
+		queueDepthSum = 0;
+		arrivalNanos = 0;
+		dispatchNanos = 0;
+		lastPid = -1;
+		if (live != null)
+			for (int i = 0; i < live.length(); i++)
+				live.set(i, 0);
+	}
+
+	/**
+	 * Publish the progress of the engine on server as it runs: simulated
+	 * clock, decisions per second, queue depth and completions
+	 */
+	public Instrumentation publishTo(MetricsServer server) {
+		AtomicLongArray live = this.live != null ? this.live : new AtomicLongArray(6);
+		this.live = live;
+		server.gauge("scheduler_clock", "Simulated time of the last decision", () -> live.get(CLOCK));
+		server.counter("scheduler_decisions_total", "Scheduling decisions, including idle ones", () -> live.get(DECISIONS));
+		server.counter("scheduler_dispatches_total", "Slices run", () -> live.get(DISPATCHES));
+		server.counter("scheduler_completed_total", "Processes completed", () -> live.get(COMPLETIONS));
+		server.gauge("scheduler_queue_depth", "Processes in the run queue at the last decision", () -> live.get(QUEUE_DEPTH));
+		server.counter("scheduler_idle_time_total", "Simulated time the CPU was idle", () -> live.get(IDLE_TIME));
+		// Rate since the previous scrape, scrapes are serialised by the server
+		long[] last = { System.nanoTime(), 0 };
+		server.gauge("scheduler_decisions_per_second", "Decisions per second of wall-clock time since the last scrape", () -> {
+			long now = System.nanoTime(), decisions = live.get(DECISIONS);
+			double rate = now > last[0] ? (decisions - last[1]) * 1e9 / (now - last[0]) : 0;
+			last[0] = now;
+			last[1] = decisions;
+			return Math.max(rate, 0);
+		});
+		return this;
+	}
+
+	/*
+	 * Hooks called by the engines, in this order for every decision:
+	 * begin(), arrived(), then one of dispatched(), rounds() or idle(), then
+	 * completed() if the process finished.
+	 */
+	void begin() {
+		decisions++;
+		if (timing)
+			mark = System.nanoTime();
+	}
+
+	/**
+	 * count processes arrived, leaving queueDepth in the run queue with the
+	 * preempted process put back
+	 */
+	void arrived(int count, int queueDepth) {
+		arrivals += count;
+		gauge(queueDepth);
+		if (timing)
+		{
+			long now = System.nanoTime();
+			arrivalNanos += now - mark;
+			mark = now;
+		}
+	}
+
+	/**
+	 * A slice of pid, leaving queueDepth processes waiting
+	 */
+	void dispatched(int pid, long start, long length, int queueDepth) {
+		dispatches++;
+		busyTime += length;
+		queueDepthSum += queueDepth;
+		gauge(queueDepth);
+		if (pid != lastPid && lastPid >= 0)
+			contextSwitches++;
+		lastPid = pid;
+
+		if (events)
+		{
+			DispatchEvent event = new DispatchEvent();
+			if (event.shouldCommit())
+			{
+				event.pid = pid;
+				event.start = start;
+				event.length = length;
+				event.queueDepth = queueDepth;
+				event.commit();
+			}
+		}
+		publish(start + length);
+		lap();
+	}
+
+	/**
+	 * rounds whole rounds of the processes in the queue run at once, one
+	 * slice each per round. firstPid ran first and lastPid last.
+	 */
+	void rounds(int processes, long rounds, int firstPid, int lastPid, long start, long slice) {
+		long slices = rounds * processes;
+		dispatches += slices;
+		busyTime += slices * slice;
+		queueDepthSum += slices * (processes - 1);
+		gauge(processes - 1);
+		if (firstPid != this.lastPid && this.lastPid >= 0)
+			contextSwitches++;
+		if (processes > 1)
+			contextSwitches += slices - 1;
+		this.lastPid = lastPid;
+
+		if (events)
+		{
+			RoundsEvent event = new RoundsEvent();
+			if (event.shouldCommit())
+			{
+				event.processes = processes;
+				event.rounds = rounds;
+				event.start = start;
+				event.slice = slice;
+				event.commit();
+			}
+		}
+		publish(start + slices * slice);
+		lap();
+	}
+
+	/**
+	 * The CPU idles from from until to, the next arrival
+	 */
+	void idle(long from, long to) {
+		idlePeriods++;
+		idleTime += to - from;
+		publish(to);
+		lap();
+	}
+
+	@Override
+	public void completed(int pid, long arrivalTime, long burstTime, long completedTime) {
+		completions++;
+		if (live != null)
+			publishNow(completedTime);
+		if (events)
+		{
+			CompletionEvent event = new CompletionEvent();
+			if (event.shouldCommit())
+			{
+				event.pid = pid;
+				event.arrival = arrivalTime;
+				event.burst = burstTime;
+				event.completed = completedTime;
+				event.turnaround = completedTime - arrivalTime;
+				event.waiting = completedTime - arrivalTime - burstTime;
+				event.commit();
+			}
+		}
+	}
+
+	private void publish(long clock) {
+		if (live != null && (decisions & PUBLISH_MASK) == 0)
+			publishNow(clock);
+	}
+
+	private void publishNow(long clock) {
+		AtomicLongArray live = this.live;
+		live.lazySet(CLOCK, clock);
+		live.lazySet(DECISIONS, decisions);
+		live.lazySet(DISPATCHES, dispatches);
+		live.lazySet(COMPLETIONS, completions);
+		live.lazySet(QUEUE_DEPTH, queueDepth);
+		live.lazySet(IDLE_TIME, idleTime);
+	}
+
+	private void gauge(int queueDepth) {
+		this.queueDepth = queueDepth;
+		if (queueDepth > maxQueueDepth)
+			maxQueueDepth = queueDepth;
+	}
+
+	private void lap() {
+		if (timing)
+		{
+			long now = System.nanoTime();
+			dispatchNanos += now - mark;
+			mark = now;
+		}
+	}
+
+	/**
+	 * Scheduling decisions, including those that found the CPU idle
+	 */
+	public long getDecisions() {
+		return decisions;
+	}
+
+	/**
+	 * Slices run, a skipped round counts one per process
+	 */
+	public long getDispatches() {
+		return dispatches;
+	}
+
+	public long getContextSwitches() {
+		return contextSwitches;
+	}
+
+	public long getArrivals() {
+		return arrivals;
+	}
+
+	public long getCompletions() {
+		return completions;
+	}
+
+	public long getIdlePeriods() {
+		return idlePeriods;
+	}
+
+	public long getIdleTime() {
+		return idleTime;
+	}
+
+	public long getBusyTime() {
+		return busyTime;
+	}
+
+	/**
+	 * Share of simulated time the CPU was running a process, 0 to 1
+	 */
+	public double getUtilization() {
+		long total = busyTime + idleTime;
+		return total > 0 ? (double) busyTime / total : 0;
+	}
+
+	/**
+	 * Processes in the run queue at the last decision
+	 */
+	public int getQueueDepth() {
+		return queueDepth;
+	}
+
+	public int getMaxQueueDepth() {
+		return maxQueueDepth;
+	}
+
+	/**
+	 * Average number of processes left waiting by a dispatch
+	 */
+	public double getAverageQueueDepth() {
+		return dispatches > 0 ? (double) queueDepthSum / dispatches : 0;
+	}
+
+	/**
+	 * Wall-clock time spent handling arrivals, 0 without timing
+	 */
+	public long getArrivalNanos() {
+		return arrivalNanos;
+	}
+
+	/**
+	 * Wall-clock time spent dispatching and idling, 0 without timing
+	 */
+	public long getDispatchNanos() {
+		return dispatchNanos;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("Instrumentation\n");
+		sb.append(String.format("decisions\t| %d\n", decisions));
+		sb.append(String.format("dispatches\t| %d\n", dispatches));
+		sb.append(String.format("switches\t| %d\n", contextSwitches));
+		sb.append(String.format("arrivals\t| %d\n", arrivals));
+		sb.append(String.format("completions\t| %d\n", completions));
+		sb.append(String.format("idle\t\t| %d in %d periods\n", idleTime, idlePeriods));
+		sb.append(String.format("utilization\t| %.2f%%\n", 100 * getUtilization()));
+		sb.append(String.format("queue depth\t| %.2f avg, %d max\n", getAverageQueueDepth(), maxQueueDepth));
+		if (timing)
+			sb.append(String.format("wall time\t| %.3f ms arrivals, %.3f ms dispatch\n", arrivalNanos / 1e6, dispatchNanos / 1e6));
+		return sb.toString();
+	}
+
+	@Name("scheduler.Dispatch")
+	@Label("Dispatch")
+	@Category("Scheduler")
+	@Description("A process was given the CPU for a slice, times are simulated")
+	@StackTrace(false)
+	static class DispatchEvent extends Event {
+		@Label("PID")
+		int pid;
+		@Label("Start")
+		long start;
+		@Label("Length")
+		long length;
+		@Label("Queue Depth")
+		int queueDepth;
+	}
+
+	@Name("scheduler.Rounds")
+	@Label("Rounds")
+	@Category("Scheduler")
+	@Description("Whole rounds of the run queue skipped over at once, times are simulated")
+	@StackTrace(false)
+	static class RoundsEvent extends Event {
+		@Label("Processes")
+		int processes;
+		@Label("Rounds")
+		long rounds;
+		@Label("Start")
+		long start;
+		@Label("Slice")
+		long slice;
+	}
+
+	@Name("scheduler.Completion")
+	@Label("Completion")
+	@Category("Scheduler")
+	@Description("A process completed, times are simulated")
+	@StackTrace(false)
+	static class CompletionEvent extends Event {
+		@Label("PID")
+		int pid;
+		@Label("Arrival")
+		long arrival;
+		@Label("Burst")
+		long burst;
+		@Label("Completed")
+		long completed;
+		@Label("Turnaround")
+		long turnaround;
+		@Label("Waiting")
+		long waiting;
+	}
+}
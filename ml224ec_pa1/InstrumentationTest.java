@@ -0,0 +1,181 @@
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+
+public class InstrumentationTest {
+
+	private static ArrayList<Process> processes() {
+		ArrayList<Process> listOfProcesses = new ArrayList<Process>();
+		listOfProcesses.add(new Process(1, 0, 6));
+		listOfProcesses.add(new Process(2, 1, 4));
+		listOfProcesses.add(new Process(3, 2, 7));
+		listOfProcesses.add(new Process(4, 4, 3));
+		listOfProcesses.add(new Process(5, 30, 2));
+		return listOfProcesses;
+	}
+
+	@org.junit.Test
+	public void test1() {
+		// RR and TableRR count the same
+		Instrumentation counters = new Instrumentation();
+		RR scheduler = new RR(processes(), 2);
+		scheduler.setInstrumentation(counters);
+		scheduler.run();
+
+		assertEquals(5, counters.getArrivals());
+		assertEquals(5, counters.getCompletions());
+		assertEquals(22, counters.getBusyTime());
+		assertEquals(10, counters.getIdleTime());
+		assertEquals(1, counters.getIdlePeriods());
+		assertEquals(22 / 32.0, counters.getUtilization(), 1e-9);
+		assertEquals(3 + 2 + 4 + 2 + 1, counters.getDispatches());
+		assertEquals(counters.getDispatches() + 1, counters.getDecisions());
+		assertEquals(4, counters.getMaxQueueDepth());
+		assertEquals(0, counters.getArrivalNanos());
+
+		Instrumentation tableCounters = new Instrumentation();
+		TableRR engine = new TableRR(ProcessTable.of(processes()), 2);
+		engine.setInstrumentation(tableCounters);
+		engine.run();
+		assertEquals(engine.getContextSwitches(), counters.getContextSwitches());
+		assertEquals(engine.getContextSwitches(), tableCounters.getContextSwitches());
+		assertEquals(counters.getDispatches(), tableCounters.getDispatches());
+		assertEquals(counters.getDecisions(), tableCounters.getDecisions());
+		assertEquals(counters.getMaxQueueDepth(), tableCounters.getMaxQueueDepth());
+		assertEquals(counters.getAverageQueueDepth(), tableCounters.getAverageQueueDepth(), 0);
+	}
+
+	@org.junit.Test
+	public void test2() {
+		// Skipped rounds count as the slices they stand for
+		ProcessTable table = WorkloadGenerator.generate(WorkloadGenerator.Kind.HEAVY_TAILED, 5000, 4);
+		Instrumentation slices = new Instrumentation();
+		TableRR engine = new TableRR(table, 1);
+		engine.setInstrumentation(slices);
+		engine.run();
+
+		Instrumentation rounds = new Instrumentation().setTiming(true);
+		TableRR skipping = new TableRR(WorkloadGenerator.generate(WorkloadGenerator.Kind.HEAVY_TAILED, 5000, 4), 1);
+		skipping.setRoundSkipping(true);
+		skipping.setInstrumentation(rounds);
+		skipping.run();
+
+		assertEquals(engine.getContextSwitches(), slices.getContextSwitches());
+		assertEquals(engine.getContextSwitches(), rounds.getContextSwitches());
+		assertEquals(slices.getDispatches(), rounds.getDispatches());
+		assertEquals(slices.getBusyTime(), rounds.getBusyTime());
+		assertEquals(engine.getIdleTime(), rounds.getIdleTime());
+		assertEquals(slices.getAverageQueueDepth(), rounds.getAverageQueueDepth(), 1e-9);
+		assertEquals(5000, rounds.getCompletions());
+		assertTrue(rounds.getDecisions() < slices.getDecisions());
+		assertTrue(rounds.getArrivalNanos() > 0 && rounds.getDispatchNanos() > 0);
+
+		rounds.reset();
+		assertEquals(0, rounds.getDispatches());
+		assertEquals(0, rounds.getMaxQueueDepth());
+	}
+
+	@org.junit.Test
+	public void test3() throws IOException {
+		// Dispatches and completions show up in a flight recording
+		Path file = Files.createTempFile("scheduler", ".jfr");
+		try {
+			Instrumentation counters = new Instrumentation().setEvents(true);
+			try (Recording recording = new Recording()) {
+				recording.enable("scheduler.Dispatch");
+				recording.enable("scheduler.Completion");
+				recording.start();
+				RR scheduler = new RR(processes(), 2);
+				scheduler.setInstrumentation(counters);
+				scheduler.run();
+				recording.stop();
+				recording.dump(file);
+			}
+
+			List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+			int dispatches = 0, completions = 0;
+			for (RecordedEvent event : events)
+			{
+				if (event.getEventType().getName().equals("scheduler.Dispatch"))
+				{
+					if (dispatches++ == 0)
+					{
+						assertEquals(1, event.getInt("pid"));
+						assertEquals(0, event.getLong("start"));
+						assertEquals(2, event.getLong("length"));
+					}
+				}
+				else if (event.getEventType().getName().equals("scheduler.Completion"))
+				{
+					completions++;
+					assertEquals(event.getLong("completed") - event.getLong("arrival"), event.getLong("turnaround"));
+				}
+			}
+			assertEquals(counters.getDispatches(), dispatches);
+			assertEquals(5, completions);
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	private static String get(InetSocketAddress address) throws IOException {
+		URL url = new URL("http://" + address.getHostString() + ":" + address.getPort() + "/metrics");
+		HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+		try (InputStream in = connection.getInputStream()) {
+			assertEquals(200, connection.getResponseCode());
+			assertTrue(connection.getContentType().startsWith("text/plain; version=0.0.4"));
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		} finally {
+			connection.disconnect();
+		}
+	}
+
+	@org.junit.Test
+	public void test4() throws IOException {
+		// Live progress can be scraped while the engine runs
+		try (MetricsServer server = new MetricsServer(0)) {
+			ProcessTable table = WorkloadGenerator.generate(WorkloadGenerator.Kind.UNIFORM, 5000, 4);
+			TableRR engine = new TableRR(table, 3);
+			Instrumentation counters = new Instrumentation().publishTo(server);
+			engine.setInstrumentation(counters);
+			String[] scraped = new String[1];
+			long[] clock = new long[1];
+			engine.setCompletionListener((pid, arrivalTime, burstTime, completedTime) -> {
+				if (counters.getCompletions() == 1000)
+				{
+					try {
+						scraped[0] = get(server.getAddress());
+					} catch (IOException e) {
+						throw new IllegalStateException(e);
+					}
+					clock[0] = completedTime;
+				}
+			});
+			engine.run();
+
+			assertTrue(scraped[0].contains("# TYPE scheduler_completed_total counter\n"));
+			assertTrue(scraped[0].contains("\nscheduler_completed_total 1000\n"));
+			assertTrue(scraped[0].contains("\nscheduler_clock " + clock[0] + "\n"));
+			assertTrue(scraped[0].contains("\nscheduler_decisions_per_second "));
+
+			String done = get(server.getAddress());
+			assertTrue(done.contains("\nscheduler_completed_total 5000\n"));
+			assertTrue(done.contains("\nscheduler_dispatches_total " + counters.getDispatches() + "\n"));
+			assertTrue(done.contains("\nscheduler_idle_time_total " + engine.getIdleTime() + "\n"));
+		}
+	}
+}
@@ -0,0 +1,82 @@
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Growable column of ints, either a plain array on the heap or chunks of
+ * an off-heap {@link Storage}, see {@link LongColumn}
+ */
+final class IntColumn {
+
+	// Heap values, null when the column is off the heap
+	private int[] values;
+
+	private final Storage.OffHeap storage;
+	private final int column;
+	private ByteBuffer[] chunks;
+	private long capacity;
+
+	/**
+	 * Column on the heap
+	 */
+	IntColumn(int capacity) {
+		values = new int[capacity];
+		storage = null;
+		column = -1;
+	}
+
+	/**
+	 * Column off the heap, in chunks handed out by storage
+	 */
+	IntColumn(Storage.OffHeap storage, int column, int capacity) {
+		this.storage = storage;
+		this.column = column;
+		chunks = new ByteBuffer[1];
+		grow(Math.max(capacity, 1));
+	}
+
+	int get(int index) {
+		int[] values = this.values;
+		if (values != null)
+			return values[index];
+		return chunks[index >>> Storage.CHUNK_SHIFT].getInt((index & Storage.CHUNK_MASK) << 2);
+	}
+
+	void set(int index, int value) {
+		int[] values = this.values;
+		if (values != null)
+			values[index] = value;
+		else
+			chunks[index >>> Storage.CHUNK_SHIFT].putInt((index & Storage.CHUNK_MASK) << 2, value);
+	}
+
+	/**
+	 * Make room for at least capacity elements, keeping the existing ones
+	 */
+	void grow(int capacity) {
+		if (values != null)
+		{
+			if (capacity > values.length)
+				values = Arrays.copyOf(values, capacity);
+			return;
+		}
+		if (capacity <= this.capacity)
+			return;
+
+		// The first chunk grows up to full size, after that whole chunks are added
+		int full = 1 << Storage.CHUNK_SHIFT;
+		if (this.capacity < full)
+		{
+			int size = (int) Math.min(full, Math.max(capacity, 2 * this.capacity));
+			chunks[0] = storage.chunk(column, 0, Integer.BYTES, size, chunks[0]);
+			this.capacity = size;
+		}
+		while (this.capacity < capacity)
+		{
+			int chunk = (int) (this.capacity >>> Storage.CHUNK_SHIFT);
+			if (chunk == chunks.length)
+				chunks = Arrays.copyOf(chunks, chunks.length * 2);
+			chunks[chunk] = storage.chunk(column, chunk, Integer.BYTES, full, null);
+			this.capacity += full;
+		}
+	}
+}
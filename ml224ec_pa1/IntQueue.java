@@ -0,0 +1,104 @@
+import java.util.Arrays;
+
+/**
+ * Growable FIFO ring buffer of ints, used as a run queue of process rows
+ * without allocating a node per enqueue like LinkedList does.
+ */
+public class IntQueue {
+
+	private int[] items;
+	private int head;
+	private int count;
+
+	public IntQueue() {
+		this(16);
+	}
+
+	public IntQueue(int capacity) {
+		items = new int[Math.max(capacity, 1)];
+	}
+
+	public void add(int item) {
+		if (count == items.length)
+			grow();
+		int tail = head + count;
+		if (tail >= items.length)
+			tail -= items.length;
+		items[tail] = item;
+		count++;
+	}
+
+	/**
+	 * Put an item at the front, so it is the next one polled
+	 */
+	public void addFirst(int item) {
+		if (count == items.length)
+			grow();
+		if (--head < 0)
+			head = items.length - 1;
+		items[head] = item;
+		count++;
+	}
+
+	/**
+	 * Remove and return the first item, the queue must not be empty
+	 */
+	public int poll() {
+		int item = items[head];
+		if (++head == items.length)
+			head = 0;
+		count--;
+		return item;
+	}
+
+	/**
+	 * Remove and return the last item, the queue must not be empty
+	 */
+	public int pollLast() {
+		count--;
+		return get(count);
+	}
+
+	public int peek() {
+		return items[head];
+	}
+
+	/**
+	 * Item at position index counted from the front
+	 */
+	public int get(int index) {
+		int i = head + index;
+		if (i >= items.length)
+			i -= items.length;
+		return items[i];
+	}
+
+	public int size() {
+		return count;
+	}
+
+	public boolean isEmpty() {
+		return count == 0;
+	}
+
+	public void clear() {
+		head = 0;
+		count = 0;
+	}
+
+	private void grow() {
+		int[] bigger = new int[items.length * 2];
+		for (int i = 0; i < count; i++)
+			bigger[i] = get(i);
+		items = bigger;
+		head = 0;
+	}
+
+	@Override
+	public String toString() {
+		int[] copy = new int[count];
+		for (int i = 0; i < count; i++)
+			copy[i] = get(i);
+		return Arrays.toString(copy);
+	}
+}
@@ -0,0 +1,145 @@
+import java.util.Arrays;
+
+/**
+ * Histogram of non-negative longs with logarithmic buckets, in the style of
+ * HdrHistogram. Values below 2^PRECISION_BITS are counted exactly, larger
+ * values land in one of 2^PRECISION_BITS buckets per power of two, so any
+ * reported value is within 1% of the recorded one. Memory is fixed at a few
+ * thousand counters whatever is recorded, and histograms can be merged.
+ */
+public class LogHistogram {
+
+	private static final int PRECISION_BITS = 7;
+	private static final int SUB_BUCKETS = 1 << PRECISION_BITS;
+	static final int BUCKETS = (64 - PRECISION_BITS) * SUB_BUCKETS;
+
+	private final long[] counts = new long[BUCKETS];
+	private long count;
+	private long sum;
+	private long min = Long.MAX_VALUE;
+	private long max = Long.MIN_VALUE;
+
+	public LogHistogram() {
+	}
+
+	public LogHistogram(LogHistogram other) {
+		merge(other);
+	}
+
+	public void record(long value) {
+		if (value < 0)
+			throw new IllegalArgumentException("Negative value " + value);
+		counts[index(value)]++;
+		count++;
+		sum += value;
+		if (value < min)
+			min = value;
+		if (value > max)
+			max = value;
+	}
+
+	/**
+	 * Record length values of an array from offset on, the same as calling
+	 * record() on each of them. Sum, minimum and maximum are each a tight
+	 * loop over the array, which the JIT compiles to SIMD instructions, only
+	 * the bucket counts are updated one value at a time.
+	 */
+	public void recordAll(long[] values, int offset, int length) {
+		int end = offset + length;
+		long low = Long.MAX_VALUE;
+		for (int i = offset; i < end; i++)
+			low = Math.min(low, values[i]);
+		if (low < 0)
+			throw new IllegalArgumentException("Negative value " + low);
+		long high = Long.MIN_VALUE;
+		for (int i = offset; i < end; i++)
+			high = Math.max(high, values[i]);
+		long total = 0;
+		for (int i = offset; i < end; i++)
+			total += values[i];
+		for (int i = offset; i < end; i++)
+			counts[index(values[i])]++;
+
+		count += length;
+		sum += total;
+		min = Math.min(min, low);
+		max = Math.max(max, high);
+	}
+
+	/**
+	 * Add every value recorded by another histogram
+	 */
+	public void merge(LogHistogram other) {
+		if (other.count == 0)
+			return;
+		for (int i = 0; i < BUCKETS; i++)
+			counts[i] += other.counts[i];
+		count += other.count;
+		sum += other.sum;
+		min = Math.min(min, other.min);
+		max = Math.max(max, other.max);
+	}
+
+	public void reset() {
+		Arrays.fill(counts, 0);
+		count = 0;
+		sum = 0;
+		min = Long.MAX_VALUE;
+		max = Long.MIN_VALUE;
+	}
+
+	private static int index(long value) {
+		if (value < SUB_BUCKETS)
+			return (int) value;
+		int msb = 63 - Long.numberOfLeadingZeros(value);
+		int shift = msb - PRECISION_BITS;
+		return ((shift + 1) << PRECISION_BITS) + (int) ((value >>> shift) - SUB_BUCKETS);
+	}
+
+	/**
+	 * Largest value that falls into the same bucket as index
+	 */
+	private static long highestValue(int index) {
+		if (index < SUB_BUCKETS)
+			return index;
+		int shift = (index >>> PRECISION_BITS) - 1;
+		long lowest = (long) (SUB_BUCKETS + (index & (SUB_BUCKETS - 1))) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+
+	/**
+	 * Value at or below which the given percentage (0 to 100) of recorded
+	 * values fall, reported as the top of its bucket but never above the max
+	 */
+	public long getPercentile(double percentile) {
+		if (count == 0)
+			return 0;
+		long rank = (long) Math.ceil(Math.max(0, Math.min(100, percentile)) / 100 * count);
+		if (rank < 1)
+			rank = 1;
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++)
+		{
+			seen += counts[i];
+			if (seen >= rank)
+				return Math.min(highestValue(i), max);
+		}
+		return max;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public long getMin() {
+		return count > 0 ? min : 0;
+	}
+
+	public long getMax() {
+		return count > 0 ? max : 0;
+	}
+
+	public double getMean() {
+		return count > 0 ? (double) sum / count : 0;
+	}
+}
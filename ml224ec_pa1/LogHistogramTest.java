@@ -0,0 +1,103 @@
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+
+public class LogHistogramTest {
+
+	@org.junit.Test
+	public void test1() {
+		// Percentiles are within 1% of the exact ones
+		Random random = new Random(9);
+		LogHistogram h = new LogHistogram();
+		long[] values = new long[100000];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = (long) Math.exp(random.nextDouble() * 30);
+			h.record(values[i]);
+		}
+		Arrays.sort(values);
+
+		for (double percentile : new double[]{1, 50, 90, 95, 99, 99.9, 100}) {
+			long exact = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+			long reported = h.getPercentile(percentile);
+			assertTrue(percentile + "th: " + reported + " vs " + exact, reported >= exact && reported <= exact + exact / 100);
+		}
+		assertEquals(values[0], h.getMin());
+		assertEquals(values[values.length - 1], h.getMax());
+		assertEquals(values.length, h.getCount());
+	}
+
+	@org.junit.Test
+	public void test2() {
+		// Small values are exact, merging is the same as recording everything in one
+		LogHistogram a = new LogHistogram();
+		LogHistogram b = new LogHistogram();
+		LogHistogram all = new LogHistogram();
+		for (int i = 1; i <= 100; i++) {
+			(i % 2 == 0 ? a : b).record(i);
+			all.record(i);
+		}
+		a.merge(b);
+
+		for (double percentile : new double[]{0, 25, 50, 99, 100})
+			assertEquals(all.getPercentile(percentile), a.getPercentile(percentile));
+		assertEquals(50, a.getPercentile(50));
+		assertEquals(99, a.getPercentile(99));
+		assertEquals(50.5, a.getMean(), 1e-9);
+		assertEquals(1, a.getMin());
+	}
+
+	@org.junit.Test
+	public void test3() {
+		// RR records the distributions while it runs
+		ArrayList<Process> listOfProcesses = new ArrayList<Process>();
+		listOfProcesses.add(new Process(1, 0, 4));
+		listOfProcesses.add(new Process(2, 1, 5));
+		listOfProcesses.add(new Process(3, 2, 2));
+		listOfProcesses.add(new Process(4, 3, 1));
+		listOfProcesses.add(new Process(5, 4, 6));
+		listOfProcesses.add(new Process(6, 6, 3));
+
+		RR scheduler = new RR(listOfProcesses, 2);
+		scheduler.run();
+
+		RunStatistics statistics = scheduler.getStatistics();
+		assertEquals(6, statistics.getCount());
+		assertEquals(12, statistics.getWaitingTimes().getMax());
+		assertEquals(2, statistics.getWaitingTimes().getMin());
+		assertEquals(5, statistics.getWaitingTimes().getPercentile(50));
+		assertEquals(17, statistics.getTurnaroundTimes().getPercentile(99));
+		assertEquals((4 + 12 + 2 + 5 + 11 + 10) / 6.0, statistics.getWaitingTimes().getMean(), 1e-9);
+	}
+
+	@org.junit.Test
+	public void test4() {
+		// Recording in bulk is the same as one value at a time
+		Random random = new Random(21);
+		long[] values = new long[5000];
+		LogHistogram expected = new LogHistogram();
+		for (int i = 0; i < values.length; i++) {
+			values[i] = random.nextInt(10) == 0 ? random.nextInt(1 << 30) : random.nextInt(200);
+			expected.record(values[i]);
+		}
+		LogHistogram bulk = new LogHistogram();
+		bulk.recordAll(values, 0, 3000);
+		bulk.recordAll(values, 3000, 2000);
+
+		assertEquals(expected.getCount(), bulk.getCount());
+		assertEquals(expected.getMin(), bulk.getMin());
+		assertEquals(expected.getMax(), bulk.getMax());
+		assertEquals(expected.getMean(), bulk.getMean(), 0);
+		for (double p : new double[]{0, 10, 50, 90, 99, 99.9, 100})
+			assertEquals(expected.getPercentile(p), bulk.getPercentile(p));
+
+		try {
+			bulk.recordAll(new long[]{1, -1}, 0, 2);
+			fail("Recorded a negative value");
+		} catch (IllegalArgumentException e) {
+			assertEquals(5000, bulk.getCount());
+		}
+	}
+}
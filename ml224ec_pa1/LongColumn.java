@@ -0,0 +1,137 @@
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+
+/**
+ * Growable column of longs, either a plain array on the heap or chunks of
+ * an off-heap {@link Storage}. A single final class with a null check is
+ * cheaper in the hot loops than a virtual call to one of two subclasses.
+ */
+final class LongColumn {
+
+	// Heap values, null when the column is off the heap
+	private long[] values;
+
+	private final Storage.OffHeap storage;
+	private final int column;
+	private ByteBuffer[] chunks;
+	private long capacity;
+
+	/**
+	 * Column on the heap
+	 */
+	LongColumn(int capacity) {
+		values = new long[capacity];
+		storage = null;
+		column = -1;
+	}
+
+	/**
+	 * Column off the heap, in chunks handed out by storage
+	 */
+	LongColumn(Storage.OffHeap storage, int column, int capacity) {
+		this.storage = storage;
+		this.column = column;
+		chunks = new ByteBuffer[1];
+		grow(Math.max(capacity, 1));
+	}
+
+	long get(int index) {
+		long[] values = this.values;
+		if (values != null)
+			return values[index];
+		return chunks[index >>> Storage.CHUNK_SHIFT].getLong((index & Storage.CHUNK_MASK) << 3);
+	}
+
+	void set(int index, long value) {
+		long[] values = this.values;
+		if (values != null)
+			values[index] = value;
+		else
+			chunks[index >>> Storage.CHUNK_SHIFT].putLong((index & Storage.CHUNK_MASK) << 3, value);
+	}
+
+	/**
+	 * The values when the column is on the heap, null otherwise
+	 */
+	long[] array() {
+		return values;
+	}
+
+	/**
+	 * Copy length elements starting at index from into the start of dest
+	 */
+	void get(int from, long[] dest, int length) {
+		if (values != null)
+		{
+			System.arraycopy(values, from, dest, 0, length);
+			return;
+		}
+		for (int done = 0; done < length;)
+		{
+			int index = from + done;
+			int offset = index & Storage.CHUNK_MASK;
+			int n = Math.min(length - done, (1 << Storage.CHUNK_SHIFT) - offset);
+			slice(index, offset).get(dest, done, n);
+			done += n;
+		}
+	}
+
+	/**
+	 * Copy the first length elements of source into the column starting at index from
+	 */
+	void set(int from, long[] source, int length) {
+		if (values != null)
+		{
+			System.arraycopy(source, 0, values, from, length);
+			return;
+		}
+		for (int done = 0; done < length;)
+		{
+			int index = from + done;
+			int offset = index & Storage.CHUNK_MASK;
+			int n = Math.min(length - done, (1 << Storage.CHUNK_SHIFT) - offset);
+			slice(index, offset).put(source, done, n);
+			done += n;
+		}
+	}
+
+	// View of a chunk from the element at offset on, a duplicate forgets the byte order
+	private LongBuffer slice(int index, int offset) {
+		ByteBuffer chunk = chunks[index >>> Storage.CHUNK_SHIFT];
+		ByteBuffer view = chunk.duplicate().order(chunk.order());
+		view.position(offset << 3);
+		return view.asLongBuffer();
+	}
+
+	/**
+	 * Make room for at least capacity elements, keeping the existing ones
+	 */
+	void grow(int capacity) {
+		if (values != null)
+		{
+			if (capacity > values.length)
+				values = Arrays.copyOf(values, capacity);
+			return;
+		}
+		if (capacity <= this.capacity)
+			return;
+
+		// The first chunk grows up to full size, after that whole chunks are added
+		int full = 1 << Storage.CHUNK_SHIFT;
+		if (this.capacity < full)
+		{
+			int size = (int) Math.min(full, Math.max(capacity, 2 * this.capacity));
+			chunks[0] = storage.chunk(column, 0, Long.BYTES, size, chunks[0]);
+			this.capacity = size;
+		}
+		while (this.capacity < capacity)
+		{
+			int chunk = (int) (this.capacity >>> Storage.CHUNK_SHIFT);
+			if (chunk == chunks.length)
+				chunks = Arrays.copyOf(chunks, chunks.length * 2);
+			chunks[chunk] = storage.chunk(column, chunk, Long.BYTES, full, null);
+			this.capacity += full;
+		}
+	}
+}
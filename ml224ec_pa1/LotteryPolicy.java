@@ -0,0 +1,96 @@
+import java.util.Random;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Lottery scheduling: every ready process holds tickets in proportion to its
+ * weight and a random ticket is drawn for each quantum, so over time every
+ * process gets a share of the CPU in proportion to its weight. Tickets sit in
+ * a {@link FenwickTree}, drawing and handing them back takes O(log n).
+ *
+ * Weights are by process id, or from the priority column used as a nice
+ * value like {@link CFSPolicy} does. Draws come from a seeded generator
+ * that restarts with every run, so the same seed gives the same schedule.
+ */
+public class LotteryPolicy implements SchedulingPolicy {
+
+	private final int tq;
+	private final long seed;
+	private final IntUnaryOperator weights;
+
+	private ProcessTable table;
+	private FenwickTree tickets;
+	private Random random;
+
+	/**
+	 * Weights from the nice values in the priority column
+	 */
+	public LotteryPolicy(int tq, long seed) {
+		this(tq, seed, null);
+	}
+
+	/**
+	 * Weights from process id to a positive number of tickets
+	 */
+	public LotteryPolicy(int tq, long seed, IntUnaryOperator weights) {
+		if (tq < 1)
+			throw new IllegalArgumentException("Time quantum must be positive");
+		this.tq = tq;
+		this.seed = seed;
+		this.weights = weights;
+	}
+
+	@Override
+	public void reset(ProcessTable table) {
+		this.table = table;
+		tickets = new FenwickTree(table.size());
+		random = new Random(seed);
+	}
+
+	@Override
+	public void arrive(int row, long time) {
+		tickets.set(row, weight(row));
+	}
+
+	@Override
+	public void requeue(int row, long time) {
+		tickets.set(row, weight(row));
+	}
+
+	@Override
+	public int select(long time) {
+		long total = tickets.getTotal();
+		if (total == 0)
+			return -1;
+		long ticket = total <= Integer.MAX_VALUE ? random.nextInt((int) total) : Math.floorMod(random.nextLong(), total);
+		int row = tickets.find(ticket);
+		tickets.set(row, 0);
+		return row;
+	}
+
+	@Override
+	public long quantum(int row) {
+		return tq;
+	}
+
+	private int weight(int row) {
+		int weight = weights != null ? weights.applyAsInt(table.getProcessId(row)) : CFSPolicy.niceToWeight(table.getPriority(row));
+		if (weight < 1)
+			throw new IllegalArgumentException("Weight of P" + table.getProcessId(row) + " must be positive");
+		return weight;
+	}
+
+	@Override
+	public boolean preemptsOnArrival() {
+		return false;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return tickets.getTotal() == 0;
+	}
+
+	@Override
+	public String getName() {
+		return "Lottery";
+	}
+}
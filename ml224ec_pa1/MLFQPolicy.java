@@ -0,0 +1,95 @@
+/**
+ * Multilevel feedback queue. Arrivals enter the top level, a process that
+ * uses up the whole quantum of its level is demoted one level, and every level
+ * down doubles the quantum. The lowest level is plain round robin. A process
+ * interrupted by an arrival keeps its place and the rest of its quantum.
+ */
+public class MLFQPolicy implements SchedulingPolicy {
+
+	private final int tq;
+	private final IntQueue[] levels;
+
+	private int[] level;  // row -> current level
+	private long[] used;  // row -> time used of the quantum at its current level
+	private boolean expired;
+
+	public MLFQPolicy(int tq, int numberOfLevels) {
+		if (tq < 1 || numberOfLevels < 1)
+			throw new IllegalArgumentException("Time quantum and number of levels must be positive");
+		this.tq = tq;
+		levels = new IntQueue[numberOfLevels];
+		for (int i = 0; i < numberOfLevels; i++)
+			levels[i] = new IntQueue();
+	}
+
+	@Override
+	public void reset(ProcessTable table) {
+		for (IntQueue queue : levels)
+			queue.clear();
+		level = new int[table.size()];
+		used = new long[table.size()];
+	}
+
+	@Override
+	public void arrive(int row, long time) {
+		level[row] = 0;
+		used[row] = 0;
+		levels[0].add(row);
+	}
+
+	@Override
+	public void requeue(int row, long time) {
+		if (expired)
+			levels[level[row]].add(row);
+		else
+			levels[level[row]].addFirst(row);
+	}
+
+	@Override
+	public int select(long time) {
+		for (IntQueue queue : levels)
+			if (!queue.isEmpty())
+				return queue.poll();
+		return -1;
+	}
+
+	@Override
+	public long quantum(int row) {
+		return levelQuantum(level[row]) - used[row];
+	}
+
+	private long levelQuantum(int l) {
+		// Stop doubling long before the shift could overflow
+		return l < 31 ? (long) tq << l : Long.MAX_VALUE;
+	}
+
+	@Override
+	public void ran(int row, long time, long duration) {
+		used[row] += duration;
+		expired = used[row] >= levelQuantum(level[row]);
+		if (expired)
+		{
+			used[row] = 0;
+			if (level[row] < levels.length - 1)
+				level[row]++;
+		}
+	}
+
+	@Override
+	public boolean preemptsOnArrival() {
+		return true;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		for (IntQueue queue : levels)
+			if (!queue.isEmpty())
+				return false;
+		return true;
+	}
+
+	@Override
+	public String getName() {
+		return "MLFQ";
+	}
+}
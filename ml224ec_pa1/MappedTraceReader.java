@@ -0,0 +1,229 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a (pid, arrival, burst) trace file through memory mapped windows of
+ * the file, so traces larger than the heap, or than a single 2 GB mapping,
+ * can be streamed. Two formats are understood:
+ *
+ * - the fixed width binary format written by {@link TraceWriter}
+ * - CSV text, one "pid,arrival,burst" record per line. Lines that do not start
+ *   with a number, such as a header or # comments, are skipped. Numbers are
+ *   parsed straight from the mapped bytes without creating Strings.
+ *
+ * Records must be in order of arrival, anything else fails fast.
+ */
+public class MappedTraceReader implements ProcessSource, Closeable {
+
+	// Bytes mapped at a time
+	private static final long WINDOW = 256L << 20;
+
+	private final FileChannel channel;
+	private final long fileSize;
+	private final long windowSize;
+	private final boolean binary;
+
+	private MappedByteBuffer buffer;
+	private long bufferStart;  // file offset of the mapped window
+	private long record;       // records read so far, for error messages
+	private final long[] fields = new long[3];
+
+	private int pid;
+	private long arrival;
+	private long burst;
+
+	private MappedTraceReader(Path path, long windowSize) throws IOException {
+		channel = FileChannel.open(path, StandardOpenOption.READ);
+		fileSize = channel.size();
+
+		binary = TraceWriter.isBinary(channel);
+		if (binary)
+		{
+			// Windows hold whole records only
+			long records = Math.max(1, windowSize / TraceWriter.RECORD_SIZE);
+			this.windowSize = records * TraceWriter.RECORD_SIZE;
+			map(TraceWriter.HEADER_SIZE);
+		}
+		else
+		{
+			this.windowSize = windowSize;
+			map(0);
+		}
+		arrival = Long.MIN_VALUE;
+	}
+
+	public static MappedTraceReader open(Path path) throws IOException {
+		return new MappedTraceReader(path, WINDOW);
+	}
+
+	// Small windows let tests cross window boundaries
+	static MappedTraceReader open(Path path, long windowSize) throws IOException {
+		return new MappedTraceReader(path, windowSize);
+	}
+
+	public boolean isBinary() {
+		return binary;
+	}
+
+	private void map(long position) throws IOException {
+		long size = Math.min(windowSize, fileSize - position);
+		buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.max(size, 0));
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		bufferStart = position;
+	}
+
+	@Override
+	public boolean next() {
+		try {
+			boolean found = binary ? nextBinary() : nextText();
+			if (found)
+				record++;
+			return found;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private boolean nextBinary() throws IOException {
+		if (buffer.remaining() < TraceWriter.RECORD_SIZE)
+		{
+			long position = bufferStart + buffer.position();
+			if (fileSize - position < TraceWriter.RECORD_SIZE)
+				return false;
+			map(position);
+		}
+		set(buffer.getInt(), buffer.getLong(), buffer.getLong());
+		return true;
+	}
+
+	private boolean nextText() throws IOException {
+		while (true)
+		{
+			int lineStart = buffer.position();
+			int lineEnd = findLineEnd(lineStart);
+
+			// The line runs past the window, remap starting at it
+			if (lineEnd < 0)
+			{
+				long position = bufferStart + lineStart;
+				if (position >= fileSize)
+					return false;
+				if (bufferStart + buffer.limit() < fileSize)
+				{
+					if (lineStart == 0)
+						throw new IllegalStateException("Line longer than the mapping window at record " + record);
+					map(position);
+					continue;
+				}
+				lineEnd = buffer.limit(); // last line without a newline
+			}
+
+			buffer.position(Math.min(lineEnd + 1, buffer.limit()));
+			if (parseLine(lineStart, lineEnd))
+				return true;
+		}
+	}
+
+	private int findLineEnd(int from) {
+		int limit = buffer.limit();
+		for (int i = from; i < limit; i++)
+			if (buffer.get(i) == '\n')
+				return i;
+		return -1;
+	}
+
+	/**
+	 * Parse "pid,arrival,burst" in [from, to), false for lines that are not a record
+	 */
+	private boolean parseLine(int from, int to) {
+		int i = skipSpaces(from, to);
+		if (i == to || !isNumberStart(buffer.get(i)))
+			return false;
+
+		long[] fields = this.fields;
+		for (int f = 0; f < 3; f++)
+		{
+			i = skipSpaces(i, to);
+			boolean negative = false;
+			if (i < to && buffer.get(i) == '-')
+			{
+				negative = true;
+				i++;
+			}
+			int digits = 0;
+			long value = 0;
+			while (i < to)
+			{
+				int c = buffer.get(i) - '0';
+				if (c < 0 || c > 9)
+					break;
+				value = value * 10 + c;
+				digits++;
+				i++;
+			}
+			if (digits == 0)
+				throw new IllegalStateException("Malformed record " + (record + 1) + " at byte " + (bufferStart + from));
+			fields[f] = negative ? -value : value;
+
+			i = skipSpaces(i, to);
+			if (f < 2)
+			{
+				if (i == to || buffer.get(i) != ',')
+					throw new IllegalStateException("Expected 3 fields in record " + (record + 1) + " at byte " + (bufferStart + from));
+				i++;
+			}
+		}
+		set(Math.toIntExact(fields[0]), fields[1], fields[2]);
+		return true;
+	}
+
+	private int skipSpaces(int i, int to) {
+		while (i < to)
+		{
+			byte c = buffer.get(i);
+			if (c != ' ' && c != '\t' && c != '\r')
+				break;
+			i++;
+		}
+		return i;
+	}
+
+	private static boolean isNumberStart(byte c) {
+		return (c >= '0' && c <= '9') || c == '-';
+	}
+
+	private void set(int pid, long arrival, long burst) {
+		if (arrival < this.arrival)
+			throw new IllegalStateException(String.format("Trace is not in order of arrival at record %d (pid %d)", record + 1, pid));
+		this.pid = pid;
+		this.arrival = arrival;
+		this.burst = burst;
+	}
+
+	@Override
+	public int pid() {
+		return pid;
+	}
+
+	@Override
+	public long arrival() {
+		return arrival;
+	}
+
+	@Override
+	public long burst() {
+		return burst;
+	}
+
+	@Override
+	public void close() throws IOException {
+		buffer = null;
+		channel.close();
+	}
+}
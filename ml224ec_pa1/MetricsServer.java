@@ -0,0 +1,159 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.DoubleSupplier;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Embedded HTTP endpoint serving live metrics of a running simulation in the
+ * Prometheus text format on /metrics, bound to localhost:
+ *
+ * curl http://localhost:9100/metrics
+ *
+ * Values are read by suppliers on the server thread when scraped, so a
+ * supplier must read what the simulating thread publishes without locking,
+ * see Instrumentation.publishTo().
+ */
+public class MetricsServer implements Closeable {
+
+	private final HttpServer server;
+	private final ExecutorService executor;
+
+	// Metric name -> family, guarded by itself
+	private final Map<String, Family> families = new LinkedHashMap<String, Family>();
+
+	/**
+	 * Server on a port of the loopback interface, 0 for any free one
+	 */
+	public MetricsServer(int port) throws IOException {
+		server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+		executor = Executors.newSingleThreadExecutor(r -> {
+			Thread thread = new Thread(r, "metrics-server");
+			thread.setDaemon(true);
+			return thread;
+		});
+		server.setExecutor(executor);
+		server.createContext("/metrics", this::handle);
+		server.start();
+	}
+
+	public InetSocketAddress getAddress() {
+		return server.getAddress();
+	}
+
+	public void gauge(String name, String help, DoubleSupplier value) {
+		register(name, "gauge", help, null, value);
+	}
+
+	public void counter(String name, String help, DoubleSupplier value) {
+		register(name, "counter", help, null, value);
+	}
+
+	/**
+	 * Add a sample to a family of metrics, labels such as philosopher="3" or
+	 * null. Samples of the same name share the type and help of the first.
+	 */
+	public void register(String name, String type, String help, String labels, DoubleSupplier value) {
+		if (!name.matches("[a-zA-Z_:][a-zA-Z0-9_:]*"))
+			throw new IllegalArgumentException("Invalid metric name: " + name);
+		synchronized (families)
+		{
+			Family family = families.get(name);
+			if (family == null)
+			{
+				family = new Family(type, help);
+				families.put(name, family);
+			}
+			family.samples.add(new Sample(labels, value));
+		}
+	}
+
+	/**
+	 * Every metric in the text exposition format
+	 */
+	public String scrape() {
+		StringBuilder sb = new StringBuilder();
+		synchronized (families)
+		{
+			for (Map.Entry<String, Family> entry : families.entrySet())
+			{
+				String name = entry.getKey();
+				Family family = entry.getValue();
+				sb.append("# HELP ").append(name).append(' ').append(family.help).append('\n');
+				sb.append("# TYPE ").append(name).append(' ').append(family.type).append('\n');
+				for (Sample sample : family.samples)
+				{
+					sb.append(name);
+					if (sample.labels != null)
+						sb.append('{').append(sample.labels).append('}');
+					sb.append(' ').append(format(sample.value.getAsDouble())).append('\n');
+				}
+			}
+		}
+		return sb.toString();
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		try {
+			if (!"GET".equals(exchange.getRequestMethod()))
+			{
+				exchange.sendResponseHeaders(405, -1);
+				return;
+			}
+			byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+			exchange.sendResponseHeaders(200, body.length);
+			try (OutputStream out = exchange.getResponseBody()) {
+				out.write(body);
+			}
+		} finally {
+			exchange.close();
+		}
+	}
+
+	private static String format(double value) {
+		if (Double.isNaN(value))
+			return "NaN";
+		if (Double.isInfinite(value))
+			return value > 0 ? "+Inf" : "-Inf";
+		return value == Math.rint(value) && Math.abs(value) < 1e15 ? Long.toString((long) value) : Double.toString(value);
+	}
+
+	@Override
+	public void close() {
+		server.stop(0);
+		executor.shutdownNow();
+	}
+
+	private static final class Family {
+		final String type;
+		final String help;
+		final List<Sample> samples = new ArrayList<Sample>();
+
+		Family(String type, String help) {
+			this.type = type;
+			this.help = help;
+		}
+	}
+
+	private static final class Sample {
+		final String labels;
+		final DoubleSupplier value;
+
+		Sample(String labels, DoubleSupplier value) {
+			this.labels = labels;
+			this.value = value;
+		}
+	}
+}
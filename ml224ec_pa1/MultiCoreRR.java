@@ -0,0 +1,226 @@
+/**
+ * Round robin on several CPU cores sharing one clock. At every decision point
+ * new arrivals are queued first, then each core whose slice ended gives its
+ * unfinished process back, and finally every free core picks a process, all
+ * in order of core index. With a single core this is exactly {@link RR#run()}.
+ *
+ * Queues can be one global run queue, one run queue per core where arrivals
+ * go to the least loaded core, or per core queues where a core with nothing
+ * to do steals from the back of the longest queue of another core.
+ */
+public class MultiCoreRR {
+
+	public enum Mode { GLOBAL_QUEUE, PER_CORE, WORK_STEALING }
+
+	private final ProcessTable table;
+	private final int tq;
+	private final int cores;
+	private final Mode mode;
+
+	private final IntQueue[] queues;
+	private final int[] running;      // core -> row running on it, -1 when free
+	private final long[] sliceEnd;    // core -> time the current slice ends
+	private final long[] busyTime;    // core -> total time spent running processes
+	private final long[] idleSince;   // core -> start of its current idle period, -1 when not idle
+	private final int[] lastRun;      // core -> row that ran last on it, -1 before the first one
+	private final EventLog[] eventLogs;
+
+	private long makespan;
+	private long contextSwitches;
+	private long steals;
+
+	public MultiCoreRR(ProcessTable table, int tq, int cores, Mode mode) {
+		this(table, tq, cores, mode, false);
+	}
+
+	public MultiCoreRR(ProcessTable table, int tq, int cores, Mode mode, boolean recordEvents) {
+		if (tq < 1 || cores < 1)
+			throw new IllegalArgumentException("Time quantum and number of cores must be positive");
+		this.table = table;
+		this.tq = tq;
+		this.cores = cores;
+		this.mode = mode;
+
+		queues = new IntQueue[mode == Mode.GLOBAL_QUEUE ? 1 : cores];
+		for (int i = 0; i < queues.length; i++)
+			queues[i] = new IntQueue();
+		running = new int[cores];
+		sliceEnd = new long[cores];
+		busyTime = new long[cores];
+		idleSince = new long[cores];
+		lastRun = new int[cores];
+		eventLogs = recordEvents ? new EventLog[cores] : null;
+		if (recordEvents)
+			for (int i = 0; i < cores; i++)
+				eventLogs[i] = new EventLog();
+	}
+
+	public void run() {
+		// Obligatory sorting by time of arrival
+		table.sortByArrival();
+
+		for (IntQueue queue : queues)
+			queue.clear();
+		for (int c = 0; c < cores; c++)
+		{
+			running[c] = -1;
+			busyTime[c] = 0;
+			idleSince[c] = 0;
+			lastRun[c] = -1;
+			if (eventLogs != null)
+				eventLogs[c].clear();
+		}
+		makespan = 0;
+		contextSwitches = 0;
+		steals = 0;
+
+		int n = table.size();
+		int next = 0;
+		int completed = 0;
+		long ct = 0;
+		while (completed < n)
+		{
+			// Add arrivals to the run queues
+			while (next < n && ct >= table.getArrivalTime(next))
+				queueFor(-1).add(next++);
+
+			// Cores whose slice ended give back or complete their process
+			for (int c = 0; c < cores; c++)
+			{
+				int p = running[c];
+				if (p < 0 || sliceEnd[c] > ct)
+					continue;
+				if (table.getRemainingBurstTime(p) > 0)
+					queueFor(c).add(p);
+				else
+				{
+					table.complete(p, ct);
+					completed++;
+					makespan = ct;
+				}
+				running[c] = -1;
+				idleSince[c] = ct;
+			}
+
+			// Free cores pick their next process
+			for (int c = 0; c < cores; c++)
+				if (running[c] < 0)
+					dispatch(c, ct);
+
+			// Advance to the next slice end or arrival, whichever comes first
+			long nextTime = next < n ? table.getArrivalTime(next) : Long.MAX_VALUE;
+			for (int c = 0; c < cores; c++)
+				if (running[c] >= 0 && sliceEnd[c] < nextTime)
+					nextTime = sliceEnd[c];
+			if (nextTime == Long.MAX_VALUE)
+				break;
+			ct = nextTime;
+		}
+	}
+
+	private void dispatch(int c, long ct) {
+		IntQueue queue = queues[mode == Mode.GLOBAL_QUEUE ? 0 : c];
+		int p = -1;
+		if (!queue.isEmpty())
+			p = queue.poll();
+		else if (mode == Mode.WORK_STEALING)
+		{
+			int victim = -1;
+			for (int i = 0; i < queues.length; i++)
+				if (i != c && queues[i].size() > 0 && (victim < 0 || queues[i].size() > queues[victim].size()))
+					victim = i;
+			if (victim >= 0)
+			{
+				p = queues[victim].pollLast();
+				steals++;
+			}
+		}
+		if (p < 0)
+			return;
+
+		if (idleSince[c] >= 0 && idleSince[c] < ct && eventLogs != null)
+			eventLogs[c].addIdle(idleSince[c], ct);
+		idleSince[c] = -1;
+
+		long bt = table.getRemainingBurstTime(p);
+		long act = bt > tq ? tq : bt;
+		table.setRemainingBurstTime(p, bt - act);
+
+		if (eventLogs != null)
+			eventLogs[c].add(table.getProcessId(p), ct, ct + act);
+		if (lastRun[c] >= 0 && lastRun[c] != p)
+			contextSwitches++;
+		lastRun[c] = p;
+		running[c] = p;
+		sliceEnd[c] = ct + act;
+		busyTime[c] += act;
+	}
+
+	/**
+	 * Queue a process goes to, core is the one it last ran on or -1 for a new arrival
+	 */
+	private IntQueue queueFor(int core) {
+		if (mode == Mode.GLOBAL_QUEUE)
+			return queues[0];
+		if (core >= 0)
+			return queues[core];
+
+		// New arrivals go to the least loaded core, lowest index on ties
+		int best = 0;
+		long bestLoad = Long.MAX_VALUE;
+		for (int c = 0; c < cores; c++)
+		{
+			long load = queues[c].size() + (running[c] >= 0 ? 1 : 0);
+			if (load < bestLoad)
+			{
+				best = c;
+				bestLoad = load;
+			}
+		}
+		return queues[best];
+	}
+
+	public ProcessTable getTable() {
+		return table;
+	}
+
+	public int getCores() {
+		return cores;
+	}
+
+	/**
+	 * Gantt events of one core, null unless events are recorded
+	 */
+	public EventLog getEventLog(int core) {
+		return eventLogs != null ? eventLogs[core] : null;
+	}
+
+	public long getBusyTime(int core) {
+		return busyTime[core];
+	}
+
+	/**
+	 * Fraction of the whole run that a core spent running processes
+	 */
+	public double getUtilization(int core) {
+		return makespan > 0 ? (double) busyTime[core] / makespan : 0;
+	}
+
+	/**
+	 * Completion time of the last process
+	 */
+	public long getMakespan() {
+		return makespan;
+	}
+
+	/**
+	 * Number of times a core switched from one process to another
+	 */
+	public long getContextSwitches() {
+		return contextSwitches;
+	}
+
+	public long getSteals() {
+		return steals;
+	}
+}
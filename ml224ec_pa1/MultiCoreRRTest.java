@@ -0,0 +1,82 @@
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+
+public class MultiCoreRRTest {
+
+	@org.junit.Test
+	public void test1() {
+		// A single core must give exactly what RR gives, in every mode
+		Random random = new Random(4);
+		for (MultiCoreRR.Mode mode : MultiCoreRR.Mode.values()) {
+			for (int run = 0; run < 30; run++) {
+				ArrayList<Process> expected = new ArrayList<Process>();
+				for (int i = 0; i < 100; i++)
+					expected.add(new Process(i + 1, random.nextInt(1000), 1 + random.nextInt(20)));
+				ProcessTable table = ProcessTable.of(expected);
+				int tq = 1 + random.nextInt(6);
+
+				RR scheduler = new RR(expected, tq);
+				scheduler.run();
+				MultiCoreRR multi = new MultiCoreRR(table, tq, 1, mode, true);
+				multi.run();
+
+				for (int i = 0; i < expected.size(); i++) {
+					assertEquals(expected.get(i).getProcessId(), table.getProcessId(i));
+					assertEquals(expected.get(i).getCompletedTime(), table.getCompletedTime(i));
+					assertEquals(expected.get(i).getWaitingTime(), table.getWaitingTime(i));
+				}
+
+				EventLog log = multi.getEventLog(0);
+				EventLog expectedLog = scheduler.getEventLog();
+				assertEquals(expectedLog.size(), log.size());
+				for (int i = 0; i < log.size(); i++) {
+					assertEquals(expectedLog.getPid(i), log.getPid(i));
+					assertEquals(expectedLog.getStart(i), log.getStart(i));
+					assertEquals(expectedLog.getEnd(i), log.getEnd(i));
+				}
+			}
+		}
+	}
+
+	@org.junit.Test
+	public void test2() {
+		// Two cores and a global queue
+		ProcessTable table = new ProcessTable();
+		table.add(1, 0, 4);
+		table.add(2, 0, 4);
+		table.add(3, 1, 2);
+
+		MultiCoreRR multi = new MultiCoreRR(table, 2, 2, MultiCoreRR.Mode.GLOBAL_QUEUE, true);
+		multi.run();
+
+		// P1 and P2 start together, at 2 P3 and P1 take the cores ahead of P2
+		assertEquals(4, table.getCompletedTime(0));
+		assertEquals(6, table.getCompletedTime(1));
+		assertEquals(4, table.getCompletedTime(2));
+		assertEquals(6, multi.getMakespan());
+		assertEquals(1.0, multi.getUtilization(0), 1e-9);
+		assertEquals(4.0 / 6, multi.getUtilization(1), 1e-9);
+	}
+
+	@org.junit.Test
+	public void test3() {
+		// Three processes land on core 0 and 1, core 1 steals P3 once P2 completes
+		ProcessTable table = new ProcessTable();
+		table.add(1, 0, 6);
+		table.add(2, 0, 1);
+		table.add(3, 0, 6);
+
+		MultiCoreRR perCore = new MultiCoreRR(table, 2, 2, MultiCoreRR.Mode.PER_CORE);
+		perCore.run();
+		assertEquals(12, perCore.getMakespan());
+
+		table.reset();
+		MultiCoreRR stealing = new MultiCoreRR(table, 2, 2, MultiCoreRR.Mode.WORK_STEALING);
+		stealing.run();
+		assertEquals(1, stealing.getSteals());
+		assertEquals(7, stealing.getMakespan());
+	}
+}
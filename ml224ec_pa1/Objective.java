@@ -0,0 +1,316 @@
+/**
+ * What {@link TQOptimizer} minimises, computed from the results of a run.
+ * Objectives can be weighted and added up:
+ *
+ * Objective.meanWaitingTime().plus(Objective.contextSwitches().times(0.5))
+ *
+ * Every objective also gives a lower bound while a run is still going, which
+ * ends up equal to the value once every process has completed. That is what
+ * lets the optimizer give up on a run as soon as it cannot beat the best one
+ * any more.
+ */
+public abstract class Objective {
+
+	private final String name;
+
+	private Objective(String name) {
+		this.name = name;
+	}
+
+	/**
+	 * Average waiting time
+	 */
+	public static Objective meanWaitingTime() {
+		return new Objective("mean WT") {
+			@Override
+			Tracker tracker(int processes, Arrivals arrivals) {
+				return new MeanTracker(processes, arrivals, true);
+			}
+		};
+	}
+
+	/**
+	 * Average turnaround time
+	 */
+	public static Objective meanTurnaroundTime() {
+		return new Objective("mean TAT") {
+			@Override
+			Tracker tracker(int processes, Arrivals arrivals) {
+				return new MeanTracker(processes, arrivals, false);
+			}
+		};
+	}
+
+	/**
+	 * Waiting time at a percentile (0 to 100), exact nearest rank
+	 */
+	public static Objective waitingTimePercentile(double percentile) {
+		checkPercentile(percentile);
+		return new Objective("p" + format(percentile) + " WT") {
+			@Override
+			Tracker tracker(int processes, Arrivals arrivals) {
+				return new PercentileTracker(processes, percentile, true);
+			}
+		};
+	}
+
+	/**
+	 * Turnaround time at a percentile (0 to 100), exact nearest rank
+	 */
+	public static Objective turnaroundTimePercentile(double percentile) {
+		checkPercentile(percentile);
+		return new Objective("p" + format(percentile) + " TAT") {
+			@Override
+			Tracker tracker(int processes, Arrivals arrivals) {
+				return new PercentileTracker(processes, percentile, false);
+			}
+		};
+	}
+
+	/**
+	 * Number of context switches
+	 */
+	public static Objective contextSwitches() {
+		return new Objective("context switches") {
+			@Override
+			Tracker tracker(int processes, Arrivals arrivals) {
+				return new Tracker() {
+					@Override
+					public void completed(int pid, long arrivalTime, long burstTime, long completedTime) {
+					}
+
+					@Override
+					double bound(long clock, long idleTime, long contextSwitches) {
+						return contextSwitches;
+					}
+				};
+			}
+		};
+	}
+
+	/**
+	 * This objective scaled by a non-negative weight
+	 */
+	public Objective times(double weight) {
+		if (!(weight >= 0))
+			throw new IllegalArgumentException("Weight must not be negative");
+		Objective term = this;
+		return new Objective(format(weight) + " * " + name) {
+			@Override
+			Tracker tracker(int processes, Arrivals arrivals) {
+				Tracker tracker = term.tracker(processes, arrivals);
+				return new Tracker() {
+					@Override
+					public void completed(int pid, long arrivalTime, long burstTime, long completedTime) {
+						tracker.completed(pid, arrivalTime, burstTime, completedTime);
+					}
+
+					@Override
+					double bound(long clock, long idleTime, long contextSwitches) {
+						return weight * tracker.bound(clock, idleTime, contextSwitches);
+					}
+				};
+			}
+		};
+	}
+
+	/**
+	 * Sum of this objective and another
+	 */
+	public Objective plus(Objective other) {
+		Objective term = this;
+		return new Objective(name + " + " + other.name) {
+			@Override
+			Tracker tracker(int processes, Arrivals arrivals) {
+				Tracker a = term.tracker(processes, arrivals);
+				Tracker b = other.tracker(processes, arrivals);
+				return new Tracker() {
+					@Override
+					public void completed(int pid, long arrivalTime, long burstTime, long completedTime) {
+						a.completed(pid, arrivalTime, burstTime, completedTime);
+						b.completed(pid, arrivalTime, burstTime, completedTime);
+					}
+
+					@Override
+					double bound(long clock, long idleTime, long contextSwitches) {
+						return a.bound(clock, idleTime, contextSwitches) + b.bound(clock, idleTime, contextSwitches);
+					}
+				};
+			}
+		};
+	}
+
+	/**
+	 * Value of the objective for a completed table
+	 */
+	public double evaluate(ProcessTable table, long contextSwitches) {
+		Tracker tracker = tracker(table.size(), null);
+		for (int i = 0; i < table.size(); i++)
+			tracker.completed(table.getProcessId(i), table.getArrivalTime(i), table.getBurstTime(i), table.getCompletedTime(i));
+		return tracker.bound(0, 0, contextSwitches);
+	}
+
+	/**
+	 * Fresh state for one run of the given number of processes. With the
+	 * arrivals of the workload, bounds also count the time spent by the
+	 * processes that have arrived but not completed yet.
+	 */
+	abstract Tracker tracker(int processes, Arrivals arrivals);
+
+	/**
+	 * Follows the completions of a run
+	 */
+	abstract static class Tracker implements CompletionListener {
+
+		/**
+		 * Lower bound of the objective given the completions so far, at a
+		 * clock where the CPU has been idle for idleTime in total
+		 */
+		abstract double bound(long clock, long idleTime, long contextSwitches);
+	}
+
+	/**
+	 * Arrival and burst times of a workload summed up in order of arrival
+	 */
+	static final class Arrivals {
+		private final long[] arrivals;
+		private final long[] arrivalSums; // arrivalSums[i] = sum of the first i arrivals
+		private final long[] burstSums;
+
+		Arrivals(Workload workload) {
+			int n = workload.size();
+			arrivals = new long[n];
+			arrivalSums = new long[n + 1];
+			burstSums = new long[n + 1];
+			for (int i = 0; i < n; i++)
+			{
+				arrivals[i] = workload.getArrivalTime(i);
+				arrivalSums[i + 1] = arrivalSums[i] + arrivals[i];
+				burstSums[i + 1] = burstSums[i] + workload.getBurstTime(i);
+			}
+		}
+	}
+
+	/**
+	 * The completed processes add their exact times. Every process that has
+	 * arrived but not completed has already waited for the time it has been
+	 * in the system minus the time it ran, and its turnaround time will at
+	 * least add what is left of its burst. The CPU was busy for clock minus
+	 * idle time, of which the completed processes took their bursts, so both
+	 * are known in total without looking at the processes one by one.
+	 */
+	private static final class MeanTracker extends Tracker {
+		private final int processes;
+		private final Arrivals arrivals;
+		private final boolean waiting;
+		private long sum;
+		private long completedArrivals;
+		private long completedBursts;
+		private int completed;
+		private int arrived;
+
+		MeanTracker(int processes, Arrivals arrivals, boolean waiting) {
+			this.processes = processes;
+			this.arrivals = arrivals;
+			this.waiting = waiting;
+		}
+
+		@Override
+		public void completed(int pid, long arrivalTime, long burstTime, long completedTime) {
+			long tat = completedTime - arrivalTime;
+			sum += waiting ? tat - burstTime : tat;
+			completedArrivals += arrivalTime;
+			completedBursts += burstTime;
+			completed++;
+		}
+
+		@Override
+		double bound(long clock, long idleTime, long contextSwitches) {
+			if (processes == 0)
+				return 0;
+			if (arrivals == null)
+				return (double) sum / processes;
+
+			while (arrived < processes && arrivals.arrivals[arrived] <= clock)
+				arrived++;
+			long active = arrived - completed;
+			long inSystem = active * clock - (arrivals.arrivalSums[arrived] - completedArrivals);
+			long ran = clock - idleTime - completedBursts;
+			long pending = inSystem - ran;
+			if (!waiting)
+				pending += arrivals.burstSums[arrived] - completedBursts;
+			return (double) (sum + pending) / processes;
+		}
+	}
+
+	/**
+	 * The nearest rank percentile of n values is the k-th largest, k = n - rank + 1.
+	 * A min-heap keeps the k largest values so far, once it is full its top
+	 * can only grow and is the percentile when every value is in.
+	 */
+	private static final class PercentileTracker extends Tracker {
+		private final boolean waiting;
+		private final long[] heap;
+		private int size;
+
+		PercentileTracker(int processes, double percentile, boolean waiting) {
+			this.waiting = waiting;
+			int rank = (int) Math.max(1, Math.ceil(percentile / 100 * processes));
+			heap = new long[Math.max(processes - rank + 1, 1)];
+		}
+
+		@Override
+		public void completed(int pid, long arrivalTime, long burstTime, long completedTime) {
+			long tat = completedTime - arrivalTime;
+			long value = waiting ? tat - burstTime : tat;
+			if (size < heap.length)
+			{
+				// Sift up
+				int i = size++;
+				while (i > 0 && heap[(i - 1) >> 1] > value)
+				{
+					heap[i] = heap[(i - 1) >> 1];
+					i = (i - 1) >> 1;
+				}
+				heap[i] = value;
+			}
+			else if (value > heap[0])
+			{
+				// Replace the top and sift down
+				int i = 0;
+				while (true)
+				{
+					int child = 2 * i + 1;
+					if (child >= size)
+						break;
+					if (child + 1 < size && heap[child + 1] < heap[child])
+						child++;
+					if (heap[child] >= value)
+						break;
+					heap[i] = heap[child];
+					i = child;
+				}
+				heap[i] = value;
+			}
+		}
+
+		@Override
+		double bound(long clock, long idleTime, long contextSwitches) {
+			return size == heap.length ? heap[0] : 0;
+		}
+	}
+
+	private static void checkPercentile(double percentile) {
+		if (!(percentile >= 0 && percentile <= 100))
+			throw new IllegalArgumentException("Percentile must be between 0 and 100");
+	}
+
+	private static String format(double value) {
+		return value == Math.rint(value) ? Long.toString((long) value) : Double.toString(value);
+	}
+
+	@Override
+	public String toString() {
+		return name;
+	}
+}
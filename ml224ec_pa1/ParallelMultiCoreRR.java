@@ -0,0 +1,374 @@
+import java.util.concurrent.Phaser;
+
+/**
+ * Parallel discrete-event version of {@link MultiCoreRR} in PER_CORE mode,
+ * with the simulated cores split over worker threads. Results, event logs
+ * and counters are exactly those of the sequential engine, and with a single
+ * core those of {@link RR}.
+ *
+ * Per core queues only interact when a new arrival goes to the least loaded
+ * core, and the load of a core (queued plus running) only drops when one of
+ * its processes completes. Execution is conservative: the coordinator thread
+ * hands out every arrival up to the earliest time any process could complete,
+ * which no completion can affect, then every core simulates on its own up to
+ * the next arrival still to be handed out. The earliest possible completion of
+ * a core is its lookahead, a slice end or the remaining burst of a queued
+ * process past that, and each arrival handed out lowers it to its own
+ * arrival time plus burst.
+ *
+ * The longer the bursts against the time between arrivals, the more arrivals
+ * fit in a window. Windows with less than INLINE_SLICES worth of simulated
+ * time are run by the coordinator alone, sparing the synchronisation.
+ */
+public class ParallelMultiCoreRR {
+
+	// Windows shorter than this many slices of every busy core run on the calling thread
+	static final long INLINE_SLICES = 1 << 12;
+
+	// Queued processes looked at for the lookahead, those further back cannot complete sooner than their position
+	private static final int LOOKAHEAD_SCAN = 256;
+
+	private static final long NEVER = Long.MAX_VALUE;
+
+	private final ProcessTable table;
+	private final int tq;
+	private final int workers;
+	private final Core[] cores;
+
+	private long makespan;
+	private long contextSwitches;
+	private long windows;
+	private long parallelWindows;
+
+	// Shared with the workers, published through the phaser
+	private long until;
+	private boolean done;
+	private volatile Throwable failure;
+
+	public ParallelMultiCoreRR(ProcessTable table, int tq, int cores, int workers) {
+		this(table, tq, cores, workers, false);
+	}
+
+	public ParallelMultiCoreRR(ProcessTable table, int tq, int cores, int workers, boolean recordEvents) {
+		if (tq < 1 || cores < 1 || workers < 1)
+			throw new IllegalArgumentException("Time quantum, number of cores and workers must be positive");
+		this.table = table;
+		this.tq = tq;
+		this.workers = Math.min(workers, cores);
+		this.cores = new Core[cores];
+		for (int c = 0; c < cores; c++)
+			this.cores[c] = new Core(recordEvents ? new EventLog() : null);
+	}
+
+	public void run() {
+		// Obligatory sorting by time of arrival
+		table.sortByArrival();
+
+		for (Core core : cores)
+			core.reset();
+		makespan = 0;
+		contextSwitches = 0;
+		windows = 0;
+		parallelWindows = 0;
+		done = false;
+		failure = null;
+
+		Phaser phaser = new Phaser(workers);
+		Thread[] threads = new Thread[workers - 1];
+		for (int w = 1; w < workers; w++)
+		{
+			int worker = w;
+			threads[w - 1] = new Thread(() -> work(phaser, worker), "des-worker-" + w);
+			threads[w - 1].setDaemon(true);
+			threads[w - 1].start();
+		}
+
+		try {
+			int n = table.size();
+			int next = 0;
+			long start = 0;
+			long[] assigned = new long[cores.length];
+			while (true)
+			{
+				// Hand out the arrivals that no completion can come before
+				long horizon = NEVER;
+				for (Core core : cores)
+					horizon = Math.min(horizon, core.lookahead);
+				while (next < n && table.getArrivalTime(next) <= horizon)
+				{
+					int c = leastLoaded(assigned);
+					assigned[c]++;
+					cores[c].arrivals.add(next);
+					horizon = Math.min(horizon, table.getArrivalTime(next) + table.getBurstTime(next));
+					next++;
+				}
+
+				// Then simulate every core up to the next arrival
+				until = next < n ? table.getArrivalTime(next) : NEVER;
+				windows++;
+				if (workers > 1 && (until == NEVER || busyCores() * ((until - start) / tq) >= INLINE_SLICES))
+				{
+					parallelWindows++;
+					phaser.arriveAndAwaitAdvance();
+					advance(0);
+					phaser.arriveAndAwaitAdvance();
+					if (failure != null)
+						throw new IllegalStateException("Worker failed", failure);
+				}
+				else
+				{
+					for (Core core : cores)
+						core.advance(until);
+				}
+				if (until == NEVER)
+					break;
+				start = until;
+			}
+		} finally {
+			done = true;
+			if (workers > 1)
+				phaser.arriveAndDeregister();
+			for (Thread thread : threads)
+			{
+				try {
+					thread.join();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+
+		for (Core core : cores)
+		{
+			makespan = Math.max(makespan, core.makespan);
+			contextSwitches += core.contextSwitches;
+		}
+	}
+
+	private void work(Phaser phaser, int worker) {
+		while (true)
+		{
+			phaser.arriveAndAwaitAdvance();
+			if (done)
+			{
+				phaser.arriveAndDeregister();
+				return;
+			}
+			advance(worker);
+			phaser.arriveAndAwaitAdvance();
+		}
+	}
+
+	// Cores are dealt to workers round robin
+	private void advance(int worker) {
+		try {
+			for (int c = worker; c < cores.length; c += workers)
+				cores[c].advance(until);
+		} catch (Throwable t) {
+			failure = t;
+		}
+	}
+
+	/**
+	 * Core a new arrival goes to, lowest index on ties. The queued and
+	 * running processes of a core are those handed to it minus those that
+	 * completed, which no window has done after the arrival.
+	 */
+	private int leastLoaded(long[] assigned) {
+		int best = 0;
+		long bestLoad = Long.MAX_VALUE;
+		for (int c = 0; c < cores.length; c++)
+		{
+			long load = assigned[c] - cores[c].completed;
+			if (load < bestLoad)
+			{
+				best = c;
+				bestLoad = load;
+			}
+		}
+		return best;
+	}
+
+	private int busyCores() {
+		int busy = 0;
+		for (Core core : cores)
+			if (core.running >= 0 || !core.queue.isEmpty() || !core.arrivals.isEmpty())
+				busy++;
+		return busy;
+	}
+
+	/**
+	 * State of one simulated core, only touched by the thread advancing it
+	 */
+	private final class Core {
+		final IntQueue queue = new IntQueue();
+		final IntQueue arrivals = new IntQueue(); // handed out, not yet arrived
+		final EventLog eventLog;
+
+		int running;
+		long sliceEnd;
+		long busyTime;
+		long idleSince;
+		int lastRun;
+		long contextSwitches;
+		long completed;
+		long makespan;
+		long lookahead;
+
+		Core(EventLog eventLog) {
+			this.eventLog = eventLog;
+		}
+
+		void reset() {
+			queue.clear();
+			arrivals.clear();
+			if (eventLog != null)
+				eventLog.clear();
+			running = -1;
+			sliceEnd = 0;
+			busyTime = 0;
+			idleSince = 0;
+			lastRun = -1;
+			contextSwitches = 0;
+			completed = 0;
+			makespan = 0;
+			lookahead = NEVER;
+		}
+
+		/**
+		 * Run every decision point before until in the order of MultiCoreRR:
+		 * arrivals, then the process whose slice ended, then dispatch
+		 */
+		void advance(long until) {
+			while (true)
+			{
+				long ct = running >= 0 ? sliceEnd : NEVER;
+				if (!arrivals.isEmpty())
+					ct = Math.min(ct, table.getArrivalTime(arrivals.peek()));
+				if (ct >= until)
+					break;
+
+				while (!arrivals.isEmpty() && table.getArrivalTime(arrivals.peek()) <= ct)
+					queue.add(arrivals.poll());
+
+				if (running >= 0 && sliceEnd <= ct)
+				{
+					if (table.getRemainingBurstTime(running) > 0)
+						queue.add(running);
+					else
+					{
+						table.complete(running, ct);
+						completed++;
+						makespan = ct;
+					}
+					running = -1;
+					idleSince = ct;
+				}
+
+				if (running < 0 && !queue.isEmpty())
+					dispatch(ct);
+			}
+			lookahead = lookahead(until);
+		}
+
+		private void dispatch(long ct) {
+			int p = queue.poll();
+			if (idleSince >= 0 && idleSince < ct && eventLog != null)
+				eventLog.addIdle(idleSince, ct);
+			idleSince = -1;
+
+			long bt = table.getRemainingBurstTime(p);
+			long act = bt > tq ? tq : bt;
+			table.setRemainingBurstTime(p, bt - act);
+
+			if (eventLog != null)
+				eventLog.add(table.getProcessId(p), ct, ct + act);
+			if (lastRun >= 0 && lastRun != p)
+				contextSwitches++;
+			lastRun = p;
+			running = p;
+			sliceEnd = ct + act;
+			busyTime += act;
+		}
+
+		/**
+		 * Earliest time one of the processes of this core could complete,
+		 * with everything before now simulated. A queued process cannot run
+		 * before the running slice ends, nor before every process ahead of it
+		 * had a slice of at least one time unit.
+		 */
+		private long lookahead(long now) {
+			long start = now;
+			long earliest = NEVER;
+			if (running >= 0)
+			{
+				start = sliceEnd;
+				earliest = sliceEnd + table.getRemainingBurstTime(running);
+			}
+			int scan = Math.min(queue.size(), LOOKAHEAD_SCAN);
+			for (int i = 0; i < scan; i++)
+				earliest = Math.min(earliest, start + i + table.getRemainingBurstTime(queue.get(i)));
+			if (queue.size() > scan)
+				earliest = Math.min(earliest, start + scan + 1);
+			return earliest;
+		}
+	}
+
+	public ProcessTable getTable() {
+		return table;
+	}
+
+	public int getCores() {
+		return cores.length;
+	}
+
+	public int getWorkers() {
+		return workers;
+	}
+
+	/**
+	 * Gantt events of one core, null unless events are recorded
+	 */
+	public EventLog getEventLog(int core) {
+		return cores[core].eventLog;
+	}
+
+	public long getBusyTime(int core) {
+		return cores[core].busyTime;
+	}
+
+	/**
+	 * Fraction of the whole run that a core spent running processes
+	 */
+	public double getUtilization(int core) {
+		return makespan > 0 ? (double) cores[core].busyTime / makespan : 0;
+	}
+
+	/**
+	 * Completion time of the last process
+	 */
+	public long getMakespan() {
+		return makespan;
+	}
+
+	/**
+	 * Number of times a core switched from one process to another
+	 */
+	public long getContextSwitches() {
+		return contextSwitches;
+	}
+
+	/**
+	 * Windows between synchronisation points of the last run
+	 */
+	public long getWindows() {
+		return windows;
+	}
+
+	/**
+	 * Windows of the last run simulated by every worker, the rest ran inline
+	 */
+	public long getParallelWindows() {
+		return parallelWindows;
+	}
+}
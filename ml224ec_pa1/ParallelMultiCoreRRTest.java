@@ -0,0 +1,93 @@
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+
+public class ParallelMultiCoreRRTest {
+
+	private static void assertSame(MultiCoreRR expected, ParallelMultiCoreRR actual) {
+		ProcessTable a = expected.getTable(), b = actual.getTable();
+		assertEquals(a.size(), b.size());
+		for (int i = 0; i < a.size(); i++) {
+			assertEquals(a.getProcessId(i), b.getProcessId(i));
+			assertEquals(a.getCompletedTime(i), b.getCompletedTime(i));
+			assertEquals(a.getWaitingTime(i), b.getWaitingTime(i));
+		}
+		assertEquals(expected.getMakespan(), actual.getMakespan());
+		assertEquals(expected.getContextSwitches(), actual.getContextSwitches());
+		for (int c = 0; c < expected.getCores(); c++) {
+			assertEquals(expected.getBusyTime(c), actual.getBusyTime(c));
+			EventLog expectedLog = expected.getEventLog(c), log = actual.getEventLog(c);
+			assertEquals(expectedLog.size(), log.size());
+			for (int i = 0; i < log.size(); i++) {
+				assertEquals(expectedLog.getPid(i), log.getPid(i));
+				assertEquals(expectedLog.getStart(i), log.getStart(i));
+				assertEquals(expectedLog.getEnd(i), log.getEnd(i));
+			}
+		}
+	}
+
+	@org.junit.Test
+	public void test1() {
+		// A single core gives exactly what RR gives
+		Random random = new Random(5);
+		for (int run = 0; run < 30; run++) {
+			ArrayList<Process> expected = new ArrayList<Process>();
+			for (int i = 0; i < 100; i++)
+				expected.add(new Process(i + 1, random.nextInt(1000), 1 + random.nextInt(20)));
+			ProcessTable table = ProcessTable.of(expected);
+			int tq = 1 + random.nextInt(6);
+
+			RR scheduler = new RR(expected, tq);
+			scheduler.run();
+			ParallelMultiCoreRR parallel = new ParallelMultiCoreRR(table, tq, 1, 4, true);
+			parallel.run();
+
+			for (int i = 0; i < expected.size(); i++) {
+				assertEquals(expected.get(i).getProcessId(), table.getProcessId(i));
+				assertEquals(expected.get(i).getCompletedTime(), table.getCompletedTime(i));
+			}
+			assertEquals(scheduler.getEventLog().size(), parallel.getEventLog(0).size());
+		}
+	}
+
+	@org.junit.Test
+	public void test2() {
+		// Same results as the sequential per core engine, whatever the number of workers
+		for (WorkloadGenerator.Kind kind : WorkloadGenerator.Kind.values()) {
+			for (int cores : new int[]{2, 3, 8}) {
+				int tq = 1 + cores % 3;
+				MultiCoreRR expected = new MultiCoreRR(WorkloadGenerator.generate(kind, 20000, cores), tq, cores, MultiCoreRR.Mode.PER_CORE, true);
+				expected.run();
+				for (int workers : new int[]{1, 2, 4}) {
+					ParallelMultiCoreRR parallel = new ParallelMultiCoreRR(WorkloadGenerator.generate(kind, 20000, cores), tq, cores, workers, true);
+					parallel.run();
+					assertSame(expected, parallel);
+				}
+			}
+		}
+	}
+
+	@org.junit.Test
+	public void test3() {
+		// Long bursts between sparse arrivals give windows worth running in parallel
+		Random random = new Random(6);
+		ProcessTable table = new ProcessTable();
+		ProcessTable copy = new ProcessTable();
+		long at = 0;
+		for (int i = 0; i < 2000; i++) {
+			at += random.nextInt(1000);
+			int bt = 1 + random.nextInt(8000);
+			table.add(i + 1, at, bt);
+			copy.add(i + 1, at, bt);
+		}
+		MultiCoreRR expected = new MultiCoreRR(copy, 2, 4, MultiCoreRR.Mode.PER_CORE, true);
+		expected.run();
+		ParallelMultiCoreRR parallel = new ParallelMultiCoreRR(table, 2, 4, 4, true);
+		parallel.run();
+		assertSame(expected, parallel);
+		assertTrue(parallel.getParallelWindows() > 1);
+		assertTrue(parallel.getWindows() < 2000);
+	}
+}
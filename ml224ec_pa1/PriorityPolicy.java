@@ -0,0 +1,51 @@
+/**
+ * Preemptive priority scheduling on the priority column of the table, a lower
+ * value is a higher priority. Arrivals are decision points, equal priorities
+ * are served in order of arrival.
+ */
+public class PriorityPolicy implements SchedulingPolicy {
+
+	private ProcessTable table;
+	private IndexedHeap heap;
+
+	@Override
+	public void reset(ProcessTable table) {
+		this.table = table;
+		heap = new IndexedHeap(table.size());
+	}
+
+	@Override
+	public void arrive(int row, long time) {
+		heap.add(row, table.getPriority(row));
+	}
+
+	@Override
+	public void requeue(int row, long time) {
+		heap.add(row, table.getPriority(row));
+	}
+
+	@Override
+	public int select(long time) {
+		return heap.poll();
+	}
+
+	@Override
+	public long quantum(int row) {
+		return Long.MAX_VALUE;
+	}
+
+	@Override
+	public boolean preemptsOnArrival() {
+		return true;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return heap.isEmpty();
+	}
+
+	@Override
+	public String getName() {
+		return "Priority";
+	}
+}
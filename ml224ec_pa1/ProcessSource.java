@@ -0,0 +1,21 @@
+/**
+ * Forward-only cursor over a stream of processes in order of arrival. Values
+ * are read through primitive accessors, so a source can feed a scheduler
+ * without creating an object per process.
+ *
+ * for (ProcessSource s = ...; s.next();)
+ *     use(s.pid(), s.arrival(), s.burst());
+ */
+public interface ProcessSource {
+
+	/**
+	 * Move to the next process, false when there are no more
+	 */
+	boolean next();
+
+	int pid();
+
+	long arrival();
+
+	long burst();
+}
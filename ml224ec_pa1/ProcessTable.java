@@ -0,0 +1,427 @@
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Struct-of-arrays storage for a workload. Every process is a row index into
+ * parallel primitive columns instead of a separate {@link Process} object,
+ * which keeps huge workloads compact and free of pointer chasing.
+ *
+ * Times are stored as longs so that long horizons do not overflow.
+ *
+ * The columns live on the heap by default, or off the heap in a
+ * {@link Storage} for tables too large for it. Every method works the same
+ * on either.
+ */
+public class ProcessTable {
+
+	private final Storage storage;
+	private int size;
+	private int capacity;
+
+	private final IntColumn id;
+	private final LongColumn arrival;
+	private final LongColumn burst;
+	private final LongColumn remaining;
+	private final LongColumn completed;
+	private final LongColumn turnaround;
+	private final LongColumn waiting;
+
+	// Only allocated once a priority is set, every row has priority 0 until then
+	private IntColumn priority;
+
+	// Rows per block of computeTimes(), small enough for the blocks to stay in cache
+	private static final int BLOCK = 2048;
+
+	// Scratch of sortByArrival, kept so that sorting a reused table does not allocate
+	private int[] sortOrder;
+	private int[] sortBuffer;
+
+	public ProcessTable() {
+		this(16);
+	}
+
+	public ProcessTable(int capacity) {
+		this(capacity, Storage.HEAP);
+	}
+
+	public ProcessTable(int capacity, Storage storage) {
+		if (capacity < 1)
+			capacity = 1;
+		this.storage = storage;
+		this.capacity = capacity;
+		id = storage.ints(capacity);
+		arrival = storage.longs(capacity);
+		burst = storage.longs(capacity);
+		remaining = storage.longs(capacity);
+		completed = storage.longs(capacity);
+		turnaround = storage.longs(capacity);
+		waiting = storage.longs(capacity);
+	}
+
+	/**
+	 * Append a process and return its row index
+	 */
+	public int add(int processId, long arrivalTime, long burstTime) {
+		if (size == capacity)
+			grow((int) Math.min(Integer.MAX_VALUE - 8, size + (size >> 1) + 1L));
+
+		int row = size++;
+		id.set(row, processId);
+		arrival.set(row, arrivalTime);
+		burst.set(row, burstTime);
+		remaining.set(row, burstTime);
+		completed.set(row, 0);
+		turnaround.set(row, 0);
+		waiting.set(row, 0);
+		if (priority != null)
+			priority.set(row, 0);
+		return row;
+	}
+
+	private void grow(int capacity) {
+		this.capacity = capacity;
+		id.grow(capacity);
+		arrival.grow(capacity);
+		burst.grow(capacity);
+		remaining.grow(capacity);
+		completed.grow(capacity);
+		turnaround.grow(capacity);
+		waiting.grow(capacity);
+		if (priority != null)
+			priority.grow(capacity);
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public Storage getStorage() {
+		return storage;
+	}
+
+	/**
+	 * Restore every row to its unscheduled state, keeping the workload itself
+	 */
+	public void reset() {
+		for (int i = 0; i < size; i++)
+		{
+			remaining.set(i, burst.get(i));
+			completed.set(i, 0);
+			turnaround.set(i, 0);
+			waiting.set(i, 0);
+		}
+	}
+
+	/**
+	 * Remove every row, keeping the allocated capacity for reuse
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Stable sort of all rows by arrival time, same ordering as RR.run() gives
+	 * an ArrayList of processes. Already sorted tables are detected in one pass.
+	 */
+	public void sortByArrival() {
+		boolean sorted = true;
+		for (int i = 1; i < size && sorted; i++)
+			if (arrival.get(i-1) > arrival.get(i))
+				sorted = false;
+		if (sorted)
+			return;
+
+		if (sortOrder == null || sortOrder.length < size)
+		{
+			sortOrder = new int[capacity];
+			sortBuffer = new int[capacity];
+		}
+		int[] order = sortOrder;
+		int[] buffer = sortBuffer;
+		for (int i = 0; i < size; i++)
+			order[i] = i;
+
+		// Bottom-up merge sort on row indices, merging is what keeps it stable
+		for (int width = 1; width < size; width <<= 1)
+		{
+			for (int lo = 0; lo < size; lo += width << 1)
+			{
+				int mid = Math.min(lo + width, size);
+				int hi = Math.min(lo + (width << 1), size);
+				int a = lo, b = mid, k = lo;
+				while (a < mid && b < hi)
+					buffer[k++] = arrival.get(order[b]) < arrival.get(order[a]) ? order[b++] : order[a++];
+				while (a < mid)
+					buffer[k++] = order[a++];
+				while (b < hi)
+					buffer[k++] = order[b++];
+			}
+			int[] swap = order;
+			order = buffer;
+			buffer = swap;
+		}
+
+		permute(order);
+	}
+
+	/**
+	 * Rearrange the columns in place so that row i becomes old row order[i],
+	 * following each permutation cycle once. Consumes the order array.
+	 */
+	private void permute(int[] order) {
+		for (int start = 0; start < size; start++)
+		{
+			if (order[start] < 0 || order[start] == start)
+				continue;
+
+			int savedId = id.get(start);
+			long savedArrival = arrival.get(start), savedBurst = burst.get(start), savedRemaining = remaining.get(start);
+			long savedCompleted = completed.get(start), savedTurnaround = turnaround.get(start), savedWaiting = waiting.get(start);
+			int savedPriority = priority != null ? priority.get(start) : 0;
+
+			int j = start;
+			while (order[j] != start)
+			{
+				int from = order[j];
+				id.set(j, id.get(from));
+				arrival.set(j, arrival.get(from));
+				burst.set(j, burst.get(from));
+				remaining.set(j, remaining.get(from));
+				completed.set(j, completed.get(from));
+				turnaround.set(j, turnaround.get(from));
+				waiting.set(j, waiting.get(from));
+				if (priority != null)
+					priority.set(j, priority.get(from));
+				order[j] = -1;
+				j = from;
+			}
+
+			id.set(j, savedId);
+			arrival.set(j, savedArrival);
+			burst.set(j, savedBurst);
+			remaining.set(j, savedRemaining);
+			completed.set(j, savedCompleted);
+			turnaround.set(j, savedTurnaround);
+			waiting.set(j, savedWaiting);
+			if (priority != null)
+				priority.set(j, savedPriority);
+			order[j] = -1;
+		}
+	}
+
+	/*
+	 * Column accessors, row is the index given by add()
+	 */
+	public int getProcessId(int row) {
+		return id.get(row);
+	}
+
+	public long getArrivalTime(int row) {
+		return arrival.get(row);
+	}
+
+	public long getBurstTime(int row) {
+		return burst.get(row);
+	}
+
+	public long getRemainingBurstTime(int row) {
+		return remaining.get(row);
+	}
+
+	public long getCompletedTime(int row) {
+		return completed.get(row);
+	}
+
+	public long getTurnaroundTime(int row) {
+		return turnaround.get(row);
+	}
+
+	public long getWaitingTime(int row) {
+		return waiting.get(row);
+	}
+
+	/**
+	 * Scheduling priority for policies that use one, lower is more important
+	 */
+	public int getPriority(int row) {
+		return priority != null ? priority.get(row) : 0;
+	}
+
+	public void setPriority(int row, int value) {
+		if (priority == null)
+		{
+			if (value == 0)
+				return;
+			priority = storage.ints(capacity);
+		}
+		priority.set(row, value);
+	}
+
+	public void setRemainingBurstTime(int row, long remainingBurstTime) {
+		remaining.set(row, remainingBurstTime);
+	}
+
+	/**
+	 * Mark a row as completed and compile its statistics
+	 */
+	public void complete(int row, long completedTime) {
+		remaining.set(row, 0);
+		completed.set(row, completedTime);
+		long tat = completedTime - arrival.get(row);
+		turnaround.set(row, tat);
+		waiting.set(row, tat - burst.get(row));
+	}
+
+	/**
+	 * Compute TAT = CT - AT and WT = TAT - BT of every row from its completed
+	 * time, and record them into statistics unless it is null. This is the
+	 * bulk counterpart of calling complete() on each row: the arithmetic is a
+	 * plain loop over arrays that the JIT turns into SIMD instructions, block
+	 * by block so that statistics read values still in cache. Off-heap
+	 * columns are copied through scratch arrays a block at a time.
+	 */
+	public void computeTimes(RunStatistics statistics) {
+		long[] ct = completed.array(), at = arrival.array(), bt = burst.array();
+		long[] tat = turnaround.array(), wt = waiting.array();
+		boolean heap = ct != null;
+		int block = Math.min(size, BLOCK);
+		if (!heap)
+		{
+			ct = new long[block];
+			at = new long[block];
+			bt = new long[block];
+			tat = new long[block];
+			wt = new long[block];
+		}
+
+		for (int from = 0; from < size; from += block)
+		{
+			int n = Math.min(block, size - from);
+			int offset = heap ? from : 0;
+			if (!heap)
+			{
+				completed.get(from, ct, n);
+				arrival.get(from, at, n);
+				burst.get(from, bt, n);
+			}
+			for (int i = offset; i < offset + n; i++)
+				tat[i] = ct[i] - at[i];
+			for (int i = offset; i < offset + n; i++)
+				wt[i] = tat[i] - bt[i];
+			if (!heap)
+			{
+				turnaround.set(from, tat, n);
+				waiting.set(from, wt, n);
+			}
+			if (statistics != null)
+				statistics.recordAll(tat, wt, offset, n);
+		}
+	}
+
+	/**
+	 * 64 bit hash of the workload (pid, arrival and burst of every row, in row
+	 * order). Results are not included, so it identifies what is scheduled.
+	 */
+	public long fingerprint() {
+		long h = 0x2545F4914F6CDD1DL ^ size;
+		for (int i = 0; i < size; i++)
+		{
+			h = mix(h + id.get(i));
+			h = mix(h + arrival.get(i));
+			h = mix(h + burst.get(i));
+		}
+		return mix(h);
+	}
+
+	// Finaliser of SplitMix64
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * Cursor over the rows in table order
+	 */
+	public ProcessSource source() {
+		return new ProcessSource() {
+			private int row = -1;
+
+			@Override
+			public boolean next() {
+				return ++row < size;
+			}
+
+			@Override
+			public int pid() {
+				return id.get(row);
+			}
+
+			@Override
+			public long arrival() {
+				return arrival.get(row);
+			}
+
+			@Override
+			public long burst() {
+				return burst.get(row);
+			}
+		};
+	}
+
+	/**
+	 * Write the rows as the process list of RR.printProcesses(), one row at a time
+	 */
+	public void printProcesses(Appendable out) throws IOException {
+		out.append("Process list\n");
+		out.append("PID\t| AT\t| BT\t| CT\t| TAT\t| WT\n");
+		StringBuilder line = new StringBuilder(64);
+		for (int i = 0; i < size; i++)
+		{
+			line.setLength(0);
+			line.append(id.get(i)).append("\t| ")
+					.append(arrival.get(i)).append("\t| ")
+					.append(burst.get(i)).append("\t| ")
+					.append(completed.get(i)).append("\t| ")
+					.append(turnaround.get(i)).append("\t| ")
+					.append(waiting.get(i)).append('\n');
+			out.append(line);
+		}
+	}
+
+	/**
+	 * Build a table from the object based API, keeping list order
+	 */
+	public static ProcessTable of(List<Process> processes) {
+		ProcessTable table = new ProcessTable(processes.size());
+		for (Process p : processes)
+			table.add(p.getProcessId(), p.getArrivalTime(), p.getBurstTime());
+		return table;
+	}
+
+	/**
+	 * Materialise the rows as Process objects, results included.
+	 * Times beyond the int range cannot be represented by Process.
+	 */
+	public ArrayList<Process> toProcesses() {
+		ArrayList<Process> list = new ArrayList<Process>(size);
+		for (int i = 0; i < size; i++)
+		{
+			Process p = new Process(id.get(i), Math.toIntExact(arrival.get(i)), Math.toIntExact(burst.get(i)));
+			writeTo(i, p);
+			list.add(p);
+		}
+		return list;
+	}
+
+	/**
+	 * Copy the results of a row onto an existing Process object
+	 */
+	public void writeTo(int row, Process p) {
+		p.setRemainingBurstTime(Math.toIntExact(remaining.get(row)));
+		p.setCompletedTime(Math.toIntExact(completed.get(row)));
+		p.setTurnaroundTime(Math.toIntExact(turnaround.get(row)));
+		p.setWaitingTime(Math.toIntExact(waiting.get(row)));
+	}
+}
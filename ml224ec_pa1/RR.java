@@ -12,8 +12,9 @@
  * Date:	8th November, 2017
  */
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.Queue;
 
@@ -28,8 +29,14 @@ public class RR{
 	// keeps track of which process should be executed next
 	public Queue<Process> schedulingQueue;
 	
-	// List to keep all data necessary for an rudimentary Gantt Chart
-	private ArrayList<String> eventList;
+	// Log of every time slice, all data necessary for an rudimentary Gantt Chart
+	private EventLog eventLog;
+	
+	// Turnaround and waiting time distributions, recorded as processes complete
+	private RunStatistics statistics;
+	
+	// Optional counters of the loop, nothing is counted when null
+	private Instrumentation instrumentation;
 
 	// Class constructor
 	public RR(ArrayList<Process> processes, int tq) {
@@ -37,42 +44,48 @@ public class RR{
 		this.processes = processes;
 		this.tq = tq;
 		
-		eventList = new ArrayList<String>();
+		eventLog = new EventLog();
+		statistics = new RunStatistics();
 	}
 
 	public void run() {		
 		// Obligatory sorting by time of arrival
 		processes.sort((p1, p2) -> p1.getArrivalTime() - p2.getArrivalTime());
 		
-		// Make a work copy of list, so enabling us to access elements and modify the list
-		ArrayList<Process> pending = (ArrayList<Process>) processes.clone();
-		
+		// Cursor into the sorted list, everything before it has already arrived
+		int n = processes.size();
+		int next = 0;
+
+		Instrumentation in = instrumentation;
 		Process p = null;
 		int ct = 0;
-		while (!pending.isEmpty() || !schedulingQueue.isEmpty() || p != null)
-		{			
-			// Check for new arrivals by comparing current time to expected time of arrival. Add arrivals to worker queue.
-			for (Iterator<Process> it = pending.iterator(); it.hasNext();)
-			{
-				Process pp = it.next();
-				if (ct >= pp.getArrivalTime()) 
-				{
-					schedulingQueue.add(pp);
-					it.remove();
-				}
-			}
+		while (next < n || !schedulingQueue.isEmpty() || p != null)
+		{
+			if (in != null)
+				in.begin();
+			int first = next;
 			
+			// Check for new arrivals by comparing current time to expected time of arrival. Add arrivals to worker queue.
+			while (next < n && ct >= processes.get(next).getArrivalTime())
+				schedulingQueue.add(processes.get(next++));
+
 			// Add previous process if not complete
 			if (p != null && p.getRemainingBurstTime() > 0)
 				schedulingQueue.add(p);
 			
+			if (in != null)
+				in.arrived(next - first, schedulingQueue.size());
+
 			p = schedulingQueue.poll();
-			
-			// Idle process
+
+			// Idle process, jump straight to the next arrival as one merged event
 			if (p == null)
 			{
-				ct++;
-				eventList.add(String.format(";%d;%d", ct-1, ct));
+				int at = processes.get(next).getArrivalTime();
+				eventLog.addIdle(ct, at);
+				if (in != null)
+					in.idle(ct, at);
+				ct = at;
 				continue;
 			}
 			// else, we've got a process to work on
@@ -86,7 +99,9 @@ public class RR{
 			
 			p.setRemainingBurstTime(bt - act);
 			
-			eventList.add(String.format("%d;%d;%d", p.getProcessId(), ct - act, ct));
+			eventLog.add(p.getProcessId(), ct - act, ct);
+			if (in != null)
+				in.dispatched(p.getProcessId(), ct - act, act, schedulingQueue.size());
 			
 			// If process is completed, compile the statistics
 			if (p.getRemainingBurstTime() < 1)
@@ -94,6 +109,9 @@ public class RR{
 				p.setCompletedTime(ct);
 				p.setTurnaroundTime(p.getCompletedTime() - p.getArrivalTime());
 				p.setWaitingTime(p.getTurnaroundTime() - p.getBurstTime());
+				statistics.completed(p.getProcessId(), p.getArrivalTime(), p.getBurstTime(), ct);
+				if (in != null)
+					in.completed(p.getProcessId(), p.getArrivalTime(), p.getBurstTime(), ct);
 				p = null;
 			}
 		}
@@ -103,6 +121,26 @@ public class RR{
 		//printGanttChart();
 	}
 
+	public EventLog getEventLog() {
+		return eventLog;
+	}
+
+	public RunStatistics getStatistics() {
+		return statistics;
+	}
+
+	public void setInstrumentation(Instrumentation instrumentation) {
+		this.instrumentation = instrumentation;
+	}
+
+	public Instrumentation getInstrumentation() {
+		return instrumentation;
+	}
+
+	public void printStatistics() {
+		System.out.print(statistics.toString());
+	}
+
 	public void printProcesses() {
 		StringBuilder sb = new StringBuilder();
 		sb.append("Process list\n");
@@ -122,52 +160,23 @@ public class RR{
 		System.out.print(sb.toString());
 	}
 
-	public void printGanttChart(){		
-		ArrayList<String> list = (ArrayList<String>) eventList.clone();
-		
-		StringBuilder output = new StringBuilder();
+	public void printGanttChart(){
+		// One row per process, padded to at least 35 time units
+		int[] pids = new int[processes.size()];
+		for (int i = 0; i < pids.length; i++)
+			pids[i] = processes.get(i).getProcessId();
 		
-		ArrayList<StringBuilder> lines = new ArrayList<StringBuilder>();
-		for (int i = 0; i < processes.size(); i++)
-			lines.add(new StringBuilder());
+		GanttRenderer renderer = new GanttRenderer(eventLog)
+				.setLabel(String.format("TQ = %d", tq))
+				.setPids(pids)
+				.setMinimumWidth(35);
 		
-		// Every dot = 1 time unit, comma for each 5th time unit
-		output.append(String.format("TQ = %d\t. ....,....,....,....,....,....,....,\n", tq));
-		
-		for (String str : list)
-		{
-			if (str.startsWith(";")) continue; // Do not parse IDLE procs
-			
-			String[] parts = str.split(";");
-			int id = Integer.parseInt(parts[0]);
-			StringBuilder sb = lines.get(id-1);
-			
-			int t0 = Integer.parseInt(parts[1]);
-			int t1 = Integer.parseInt(parts[2]);
-			
-			for (int i = sb.length(); i < t1; i++)
-				if (i >= t0 && i < t1)
-					sb.append("=");
-				else if ((i+1) % 5 == 0) // We would like have some nice formatting too (line for every 5th unoccupied space)...
-					sb.append("|");
-				else
-					sb.append(" ");
+		try {
+			renderer.render(System.out);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
 		}
-		
-		// Post parsing formatting
-		for (StringBuilder sb : lines)
-			for (int i = sb.length(); i < 35; i++)
-			{
-				if ((i+1) % 5 == 0)
-					sb.append("|");
-				else 
-					sb.append(" ");
-			}
-		
-		for (int i = 0; i < lines.size(); i++)
-			output.append(String.format("PID %d\t: %s\n", i+1, lines.get(i).toString()));
-		output.append('\n');
-		
-		System.out.println(output);
+		System.out.println();
+		System.out.println();
 	}
 }
@@ -0,0 +1,304 @@
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Round robin over real work: {@link CooperativeTask}s multiplexed over a
+ * few carrier threads sharing one FIFO run queue. A carrier takes the task at
+ * the head, gives it a slice of one quantum and puts it at the back of the
+ * queue if it is not complete, the same policy {@link RR} simulates.
+ *
+ * Tasks are not preempted, the quantum is enforced by the tasks checking
+ * their slice. Slices that ran past it are counted as overruns.
+ *
+ * Every task is recorded like a process of a simulation, in the time unit of
+ * the quantum and from the moment the executor was created: AT when it was
+ * submitted, BT the time it actually ran, CT when its last slice ended, and
+ * TAT and WT from those. Each carrier keeps an event log of its slices, so
+ * measured schedules can be rendered, or replayed through {@link TableRR} as
+ * a workload to compare with the simulated one.
+ */
+public class RRExecutor implements Executor, Closeable {
+
+	private final long quantumNanos;
+	private final TimeUnit unit;
+	private final long origin = System.nanoTime();
+	private final Thread[] carriers;
+	private final EventLog[] eventLogs;  // one per carrier, written only by it
+	private final long[] lastPids;       // carrier -> pid of its last slice
+
+	// Run queue, guarded by itself
+	private final ArrayDeque<Entry> queue = new ArrayDeque<Entry>();
+	private int active;                  // submitted and not complete
+	private boolean shutdown;
+
+	// Completed tasks in order of completion, guarded by table
+	private final ProcessTable table = new ProcessTable();
+	private RunStatistics statistics;
+
+	private final AtomicInteger nextPid = new AtomicInteger(1);
+	private final AtomicLong contextSwitches = new AtomicLong();
+	private final AtomicLong overruns = new AtomicLong();
+	private final AtomicLong failures = new AtomicLong();
+
+	/**
+	 * Executor on carrier threads, giving slices of quantum in unit, which is
+	 * also the unit of every recorded time
+	 */
+	public RRExecutor(int carriers, long quantum, TimeUnit unit) {
+		if (carriers < 1 || quantum < 1)
+			throw new IllegalArgumentException("Number of carriers and quantum must be positive");
+		this.quantumNanos = unit.toNanos(quantum);
+		this.unit = unit;
+		this.carriers = new Thread[carriers];
+		eventLogs = new EventLog[carriers];
+		lastPids = new long[carriers];
+		for (int c = 0; c < carriers; c++)
+		{
+			int carrier = c;
+			eventLogs[c] = new EventLog();
+			lastPids[c] = -1;
+			this.carriers[c] = new Thread(() -> carry(carrier), "rr-carrier-" + c);
+			this.carriers[c].setDaemon(true);
+			this.carriers[c].start();
+		}
+	}
+
+	/**
+	 * Record the distributions of TAT and WT as tasks complete
+	 */
+	public void setStatistics(RunStatistics statistics) {
+		synchronized (table)
+		{
+			this.statistics = statistics;
+		}
+	}
+
+	/**
+	 * Queue a task under a process id, the future completes with it
+	 */
+	public CompletableFuture<Void> submit(int pid, CooperativeTask task) {
+		Entry entry = new Entry(pid, task, System.nanoTime());
+		synchronized (queue)
+		{
+			if (shutdown)
+				throw new RejectedExecutionException("Executor is closed");
+			active++;
+			queue.addLast(entry);
+			queue.notify();
+		}
+		return entry.future;
+	}
+
+	/**
+	 * Queue a plain runnable as a task of a single slice, under the next free
+	 * process id counting from 1. Ids given to submit() are not skipped.
+	 */
+	@Override
+	public void execute(Runnable command) {
+		submit(nextPid.getAndIncrement(), slice -> {
+			command.run();
+			return true;
+		});
+	}
+
+	private void carry(int carrier) {
+		Slice slice = new Slice();
+		while (true)
+		{
+			Entry entry;
+			synchronized (queue)
+			{
+				while (queue.isEmpty())
+				{
+					if (shutdown && active == 0)
+						return;
+					try {
+						queue.wait();
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+				entry = queue.pollFirst();
+			}
+
+			if (entry.pid != lastPids[carrier] && lastPids[carrier] >= 0)
+				contextSwitches.incrementAndGet();
+			lastPids[carrier] = entry.pid;
+
+			long start = System.nanoTime();
+			slice.deadline = start + quantumNanos;
+			boolean done;
+			Throwable failure = null;
+			try {
+				done = entry.task.run(slice);
+			} catch (Throwable t) {
+				done = true;
+				failure = t;
+			}
+			long end = System.nanoTime();
+			entry.ran += end - start;
+			if (end - start > quantumNanos)
+				overruns.incrementAndGet();
+			eventLogs[carrier].add(entry.pid, time(start), time(end));
+
+			if (!done)
+			{
+				synchronized (queue)
+				{
+					queue.addLast(entry);
+				}
+				continue;
+			}
+
+			if (failure != null)
+				failures.incrementAndGet();
+			else
+				record(entry, end);
+			synchronized (queue)
+			{
+				if (--active == 0)
+					queue.notifyAll();
+			}
+			if (failure != null)
+				entry.future.completeExceptionally(failure);
+			else
+				entry.future.complete(null);
+		}
+	}
+
+	private void record(Entry entry, long end) {
+		long arrival = time(entry.submitted);
+		long burst = unit.convert(entry.ran, TimeUnit.NANOSECONDS);
+		long completed = time(end);
+		synchronized (table)
+		{
+			int row = table.add(entry.pid, arrival, burst);
+			table.complete(row, completed);
+			if (statistics != null)
+				statistics.completed(entry.pid, arrival, burst, completed);
+		}
+	}
+
+	// Nanos from System.nanoTime() to the recorded time unit since the start
+	private long time(long nanos) {
+		return unit.convert(nanos - origin, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Stop taking tasks, wait for every queued one to complete and stop the carriers
+	 */
+	@Override
+	public void close() {
+		synchronized (queue)
+		{
+			shutdown = true;
+			queue.notifyAll();
+		}
+		boolean interrupted = false;
+		for (Thread carrier : carriers)
+		{
+			while (carrier.isAlive())
+			{
+				try {
+					carrier.join();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+
+	/**
+	 * Completed tasks in order of completion. Only read it after close(), or
+	 * synchronized on it while tasks still complete.
+	 */
+	public ProcessTable getTable() {
+		return table;
+	}
+
+	/**
+	 * The measured processes as a workload, to simulate them with the same quantum
+	 */
+	public Workload toWorkload(String name) {
+		synchronized (table)
+		{
+			return Workload.of(name, table);
+		}
+	}
+
+	public int getCarriers() {
+		return carriers.length;
+	}
+
+	/**
+	 * Slices run by a carrier, only read it after close()
+	 */
+	public EventLog getEventLog(int carrier) {
+		return eventLogs[carrier];
+	}
+
+	public TimeUnit getTimeUnit() {
+		return unit;
+	}
+
+	/**
+	 * Times a carrier went on with another task than the one it ran last
+	 */
+	public long getContextSwitches() {
+		return contextSwitches.get();
+	}
+
+	/**
+	 * Slices that ran longer than the quantum
+	 */
+	public long getOverruns() {
+		return overruns.get();
+	}
+
+	/**
+	 * Tasks that threw, they complete their future exceptionally and are not recorded
+	 */
+	public long getFailures() {
+		return failures.get();
+	}
+
+	/**
+	 * Time given to a task at once, check it to yield when it is up
+	 */
+	public static final class Slice {
+		private long deadline;
+
+		private Slice() {
+		}
+
+		public boolean isExpired() {
+			return System.nanoTime() - deadline >= 0;
+		}
+
+		public long getRemainingNanos() {
+			return Math.max(0, deadline - System.nanoTime());
+		}
+	}
+
+	private static final class Entry {
+		final int pid;
+		final CooperativeTask task;
+		final long submitted;
+		final CompletableFuture<Void> future = new CompletableFuture<Void>();
+		long ran;  // nanos, only touched by the carrier running it
+
+		Entry(int pid, CooperativeTask task, long submitted) {
+			this.pid = pid;
+			this.task = task;
+			this.submitted = submitted;
+		}
+	}
+}
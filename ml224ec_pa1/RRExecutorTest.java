@@ -0,0 +1,108 @@
+import static org.junit.Assert.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+public class RRExecutorTest {
+
+	@org.junit.Test
+	public void test1() throws InterruptedException {
+		// One carrier runs queued tasks a slice each in turn, like RR
+		RRExecutor executor = new RRExecutor(1, 1, TimeUnit.MILLISECONDS);
+		CountDownLatch submitted = new CountDownLatch(1);
+		for (int pid = 1; pid <= 3; pid++)
+		{
+			int[] steps = { 4 };
+			executor.submit(pid, slice -> {
+				try {
+					submitted.await();
+				} catch (InterruptedException e) {
+					throw new IllegalStateException(e);
+				}
+				return --steps[0] == 0;
+			});
+		}
+		submitted.countDown();
+		executor.close();
+
+		EventLog log = executor.getEventLog(0);
+		assertEquals(12, log.size());
+		for (int i = 0; i < log.size(); i++)
+			assertEquals(i % 3 + 1, log.getPid(i));
+		assertEquals(11, executor.getContextSwitches());
+
+		ProcessTable table = executor.getTable();
+		assertEquals(3, table.size());
+		for (int i = 0; i < table.size(); i++)
+		{
+			assertEquals(i + 1, table.getProcessId(i));
+			assertEquals(table.getCompletedTime(i) - table.getArrivalTime(i), table.getTurnaroundTime(i));
+			assertTrue(table.getWaitingTime(i) >= 0);
+		}
+	}
+
+	@org.junit.Test
+	public void test2() throws InterruptedException {
+		// A task that yields once its slice is up is spread over many slices
+		RRExecutor executor = new RRExecutor(1, 2, TimeUnit.MILLISECONDS);
+		RunStatistics statistics = new RunStatistics();
+		executor.setStatistics(statistics);
+		long[] work = { TimeUnit.MILLISECONDS.toNanos(20) };
+		AtomicInteger slices = new AtomicInteger();
+		executor.submit(1, slice -> {
+			slices.incrementAndGet();
+			long start = System.nanoTime();
+			while (!slice.isExpired() && System.nanoTime() - start < work[0])
+				;
+			work[0] -= System.nanoTime() - start;
+			return work[0] <= 0;
+		});
+		executor.close();
+
+		assertTrue(slices.get() >= 5);
+		assertEquals(1, executor.getTable().size());
+		assertTrue(executor.getTable().getBurstTime(0) >= 19);
+		assertEquals(1, statistics.getCount());
+	}
+
+	@org.junit.Test
+	public void test3() throws InterruptedException {
+		// Runnables on several carriers, overruns and failures
+		RRExecutor executor = new RRExecutor(4, 1, TimeUnit.MILLISECONDS);
+		AtomicInteger ran = new AtomicInteger();
+		for (int i = 0; i < 200; i++)
+			executor.execute(ran::incrementAndGet);
+		executor.execute(() -> {
+			try {
+				Thread.sleep(5);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		CompletableFuture<Void> failed = executor.submit(1000, slice -> {
+			throw new IllegalStateException("Failed");
+		});
+		executor.close();
+
+		assertEquals(200, ran.get());
+		assertEquals(201, executor.getTable().size());
+		assertTrue(executor.getOverruns() >= 1);
+		assertEquals(1, executor.getFailures());
+		try {
+			failed.get();
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+
+		int slices = 0;
+		for (int c = 0; c < executor.getCarriers(); c++)
+			slices += executor.getEventLog(c).size();
+		assertTrue(slices <= 202);
+		assertEquals(201, executor.toWorkload("measured").size());
+	}
+}
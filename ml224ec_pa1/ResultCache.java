@@ -0,0 +1,243 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Cache of round robin results keyed by the fingerprint of a workload and the
+ * time quantum, so asking for the same combination again costs a hash lookup
+ * instead of a run.
+ *
+ * The memory tier keeps the most recently used results up to a size in bytes.
+ * The optional disk tier keeps one file per result in a directory and outlives
+ * the JVM. Stored results carry {@link TableRR#VERSION}, files written by
+ * another version of the engine are deleted when found.
+ *
+ * It is safe to use from several threads. Two threads missing on the same
+ * key at the same time may both run it.
+ */
+public class ResultCache {
+
+	static final int MAGIC = 0x52524352; // "RRCR"
+	static final int VERSION = 1;
+
+	private final long maxBytes;
+	private final Path directory; // null when there is no disk tier
+
+	// Access ordered, the eldest entry is the least recently used
+	private final LinkedHashMap<Key, RunResult> entries = new LinkedHashMap<Key, RunResult>(16, 0.75f, true);
+	private long bytes;
+
+	private long hits;
+	private long diskHits;
+	private long misses;
+
+	public ResultCache(long maxBytes) {
+		this(maxBytes, null);
+	}
+
+	/**
+	 * Keep up to maxBytes of results in memory, and every result in directory unless it is null
+	 */
+	public ResultCache(long maxBytes, Path directory) {
+		if (maxBytes < 0)
+			throw new IllegalArgumentException("Size must not be negative");
+		this.maxBytes = maxBytes;
+		this.directory = directory;
+		if (directory != null)
+		{
+			try {
+				Files.createDirectories(directory);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	/**
+	 * The result of running workload with tq, from the cache when possible.
+	 * The summary carries the name of the workload asked for.
+	 */
+	public RunResult get(Workload workload, int tq) {
+		Key key = new Key(workload.fingerprint(), workload.size(), tq);
+		RunResult result;
+		synchronized (this)
+		{
+			result = entries.get(key);
+			if (result != null)
+				hits++;
+		}
+
+		if (result == null && directory != null)
+		{
+			result = load(key, workload);
+			if (result != null)
+			{
+				synchronized (this)
+				{
+					diskHits++;
+				}
+				put(key, result);
+			}
+		}
+
+		if (result == null)
+		{
+			synchronized (this)
+			{
+				misses++;
+			}
+			result = RunResult.run(workload, tq);
+			put(key, result);
+			if (directory != null)
+				store(key, result);
+		}
+		return result.withWorkload(workload.getName());
+	}
+
+	private synchronized void put(Key key, RunResult result) {
+		long size = result.estimateSize();
+		if (size > maxBytes)
+			return;
+		RunResult previous = entries.put(key, result);
+		if (previous != null)
+			bytes -= previous.estimateSize();
+		bytes += size;
+
+		Iterator<RunResult> eldest = entries.values().iterator();
+		while (bytes > maxBytes)
+		{
+			bytes -= eldest.next().estimateSize();
+			eldest.remove();
+		}
+	}
+
+	/**
+	 * Drop every result kept in memory, the disk tier is left alone
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		bytes = 0;
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	/**
+	 * Estimated bytes held by the memory tier
+	 */
+	public synchronized long getBytes() {
+		return bytes;
+	}
+
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	public synchronized long getDiskHits() {
+		return diskHits;
+	}
+
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	private Path file(Key key) {
+		return directory.resolve(String.format("%016x-%d-%d.rrc", key.fingerprint, key.size, key.tq));
+	}
+
+	/**
+	 * File layout: int magic "RRCR", int cache format version, int engine
+	 * version, long fingerprint, int tq, int size, long context switches,
+	 * long idle time, then the turnaround time of every row as a varint
+	 */
+	private void store(Key key, RunResult result) {
+		Path file = file(key);
+		Path tmp = file.resolveSibling(file.getFileName() + "." + Thread.currentThread().getId() + ".tmp");
+		try {
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(TableRR.VERSION);
+				out.writeLong(key.fingerprint);
+				out.writeInt(key.tq);
+				out.writeInt(key.size);
+				out.writeLong(result.getSummary().getContextSwitches());
+				out.writeLong(result.getSummary().getIdleTime());
+				for (int i = 0; i < result.size(); i++)
+					Varint.writeUnsigned(out, result.getTurnaroundTime(i));
+			}
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			// The disk tier is only an optimisation, the result is still returned
+			try {
+				Files.deleteIfExists(tmp);
+			} catch (IOException ignored) {
+			}
+		}
+	}
+
+	/**
+	 * Result stored for key, null when there is none or it is stale or damaged
+	 */
+	private RunResult load(Key key, Workload workload) {
+		Path file = file(key);
+		if (!Files.exists(file))
+			return null;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16))) {
+			if (in.readInt() == MAGIC && in.readInt() == VERSION && in.readInt() == TableRR.VERSION
+					&& in.readLong() == key.fingerprint && in.readInt() == key.tq && in.readInt() == key.size)
+			{
+				long contextSwitches = in.readLong();
+				long idleTime = in.readLong();
+
+				ProcessTable table = workload.toTable();
+				for (int i = 0; i < key.size; i++)
+					table.complete(i, table.getArrivalTime(i) + Varint.readUnsigned(in));
+				return RunResult.of(workload, key.tq, table, contextSwitches, idleTime);
+			}
+		} catch (IOException e) {
+			return null;
+		}
+
+		// Stale, deleted once the file is closed
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException ignored) {
+		}
+		return null;
+	}
+
+	private static final class Key {
+		final long fingerprint;
+		final int size;
+		final int tq;
+
+		Key(long fingerprint, int size, int tq) {
+			this.fingerprint = fingerprint;
+			this.size = size;
+			this.tq = tq;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Key))
+				return false;
+			Key other = (Key) o;
+			return fingerprint == other.fingerprint && size == other.size && tq == other.tq;
+		}
+
+		@Override
+		public int hashCode() {
+			return Long.hashCode(fingerprint) * 31 + tq;
+		}
+	}
+}
@@ -0,0 +1,101 @@
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+
+public class ResultCacheTest {
+
+	@org.junit.Test
+	public void test1() {
+		// Hits return what a fresh run gives, under the name asked for
+		Workload workload = WorkloadGenerator.workload(WorkloadGenerator.Kind.BURSTY, 5000, 3);
+		Workload renamed = Workload.of("renamed", workload.toTable());
+		ResultCache cache = new ResultCache(1 << 24);
+
+		RunResult first = cache.get(workload, 4);
+		RunResult second = cache.get(renamed, 4);
+		cache.get(workload, 5);
+		assertEquals(2, cache.getMisses());
+		assertEquals(1, cache.getHits());
+		assertEquals(2, cache.size());
+		assertEquals("renamed", second.getSummary().getWorkload());
+
+		ProcessTable table = workload.toTable();
+		TableRR engine = new TableRR(table, 4);
+		engine.run();
+		for (int i = 0; i < table.size(); i++) {
+			assertEquals(table.getCompletedTime(i), second.getCompletedTime(i));
+			assertEquals(table.getTurnaroundTime(i), second.getTurnaroundTime(i));
+			assertEquals(table.getWaitingTime(i), second.getWaitingTime(i));
+		}
+		assertEquals(engine.getContextSwitches(), second.getSummary().getContextSwitches());
+		assertEquals(first.getSummary().getAverageWaitingTime(), second.getSummary().getAverageWaitingTime(), 0);
+	}
+
+	@org.junit.Test
+	public void test2() {
+		// Least recently used results are evicted to stay within the size
+		Workload a = WorkloadGenerator.workload(WorkloadGenerator.Kind.UNIFORM, 1000, 1);
+		Workload b = WorkloadGenerator.workload(WorkloadGenerator.Kind.UNIFORM, 1000, 2);
+		Workload c = WorkloadGenerator.workload(WorkloadGenerator.Kind.UNIFORM, 1000, 3);
+		long size = RunResult.run(a, 2).estimateSize();
+		ResultCache cache = new ResultCache(2 * size);
+
+		cache.get(a, 2);
+		cache.get(b, 2);
+		cache.get(a, 2);
+		cache.get(c, 2);
+		assertEquals(2, cache.size());
+		assertTrue(cache.getBytes() <= 2 * size);
+
+		cache.get(a, 2);
+		assertEquals(2, cache.getHits());
+		cache.get(b, 2);
+		assertEquals(4, cache.getMisses());
+	}
+
+	@org.junit.Test
+	public void test3() throws IOException {
+		// The disk tier survives a new cache, and results of another engine version are rerun
+		Path directory = Files.createTempDirectory("rrcache");
+		try {
+			Workload workload = WorkloadGenerator.workload(WorkloadGenerator.Kind.HEAVY_TAILED, 5000, 7);
+			RunResult expected = new ResultCache(1 << 24, directory).get(workload, 3);
+
+			ResultCache cache = new ResultCache(1 << 24, directory);
+			RunResult loaded = cache.get(workload, 3);
+			assertEquals(1, cache.getDiskHits());
+			assertEquals(0, cache.getMisses());
+			for (int i = 0; i < workload.size(); i++)
+				assertEquals(expected.getCompletedTime(i), loaded.getCompletedTime(i));
+			assertEquals(expected.getSummary().getContextSwitches(), loaded.getSummary().getContextSwitches());
+			assertEquals(expected.getSummary().getIdleTime(), loaded.getSummary().getIdleTime());
+			assertEquals(expected.getSummary().getWaitingTimePercentile(99), loaded.getSummary().getWaitingTimePercentile(99));
+
+			// Pretend the file was written by an older engine
+			Path file;
+			try (Stream<Path> files = Files.list(directory)) {
+				file = files.findFirst().get();
+			}
+			byte[] bytes = Files.readAllBytes(file);
+			ByteBuffer.wrap(bytes).putInt(8, TableRR.VERSION - 1);
+			Files.write(file, bytes);
+
+			cache = new ResultCache(1 << 24, directory);
+			cache.get(workload, 3);
+			assertEquals(0, cache.getDiskHits());
+			assertEquals(1, cache.getMisses());
+			assertEquals(TableRR.VERSION, ByteBuffer.wrap(Files.readAllBytes(file)).getInt(8));
+		} finally {
+			try (Stream<Path> files = Files.list(directory)) {
+				for (Path file : (Iterable<Path>) files::iterator)
+					Files.delete(file);
+			}
+			Files.delete(directory);
+		}
+	}
+}
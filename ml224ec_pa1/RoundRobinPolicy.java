@@ -0,0 +1,54 @@
+/**
+ * Round robin with a FIFO run queue, the same rules as {@link RR}
+ */
+public class RoundRobinPolicy implements SchedulingPolicy {
+
+	private final int tq;
+	private final IntQueue queue = new IntQueue();
+
+	public RoundRobinPolicy(int tq) {
+		if (tq < 1)
+			throw new IllegalArgumentException("Time quantum must be positive");
+		this.tq = tq;
+	}
+
+	@Override
+	public void reset(ProcessTable table) {
+		queue.clear();
+	}
+
+	@Override
+	public void arrive(int row, long time) {
+		queue.add(row);
+	}
+
+	@Override
+	public void requeue(int row, long time) {
+		queue.add(row);
+	}
+
+	@Override
+	public int select(long time) {
+		return queue.isEmpty() ? -1 : queue.poll();
+	}
+
+	@Override
+	public long quantum(int row) {
+		return tq;
+	}
+
+	@Override
+	public boolean preemptsOnArrival() {
+		return false;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return queue.isEmpty();
+	}
+
+	@Override
+	public String getName() {
+		return "RR";
+	}
+}
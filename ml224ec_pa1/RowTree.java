@@ -0,0 +1,135 @@
+import java.util.Arrays;
+
+/**
+ * Balanced binary search tree of process rows ordered by a long key, ties
+ * broken by the lower row. Implemented as a treap on primitive arrays, the
+ * heap priorities come from a fixed seed so runs stay reproducible.
+ * Insert and removal of the smallest row take O(log n) expected time.
+ */
+public class RowTree {
+
+	private static final int NIL = -1;
+
+	private int root = NIL;
+	private int size;
+	private int[] left;
+	private int[] right;
+	private int[] priority;
+	private long[] keys;
+	private long seed = 0x9E3779B97F4A7C15L;
+
+	public RowTree(int rows) {
+		int capacity = Math.max(rows, 1);
+		left = new int[capacity];
+		right = new int[capacity];
+		priority = new int[capacity];
+		keys = new long[capacity];
+	}
+
+	public void add(int row, long key) {
+		if (row >= keys.length)
+		{
+			int capacity = Math.max(row + 1, keys.length * 2);
+			left = Arrays.copyOf(left, capacity);
+			right = Arrays.copyOf(right, capacity);
+			priority = Arrays.copyOf(priority, capacity);
+			keys = Arrays.copyOf(keys, capacity);
+		}
+		keys[row] = key;
+		left[row] = NIL;
+		right[row] = NIL;
+		priority[row] = nextPriority();
+		root = insert(root, row);
+		size++;
+	}
+
+	private int insert(int node, int row) {
+		if (node == NIL)
+			return row;
+		if (less(row, node))
+		{
+			left[node] = insert(left[node], row);
+			if (priority[left[node]] > priority[node])
+				node = rotateRight(node);
+		}
+		else
+		{
+			right[node] = insert(right[node], row);
+			if (priority[right[node]] > priority[node])
+				node = rotateLeft(node);
+		}
+		return node;
+	}
+
+	private int rotateRight(int node) {
+		int l = left[node];
+		left[node] = right[l];
+		right[l] = node;
+		return l;
+	}
+
+	private int rotateLeft(int node) {
+		int r = right[node];
+		right[node] = left[r];
+		left[r] = node;
+		return r;
+	}
+
+	/**
+	 * Remove and return the row with the smallest key, -1 when empty
+	 */
+	public int pollFirst() {
+		if (root == NIL)
+			return -1;
+
+		int parent = NIL, node = root;
+		while (left[node] != NIL)
+		{
+			parent = node;
+			node = left[node];
+		}
+
+		// The smallest node has no left child, its right subtree takes its place
+		if (parent == NIL)
+			root = right[node];
+		else
+			left[parent] = right[node];
+		size--;
+		return node;
+	}
+
+	/**
+	 * Key of the smallest row, the tree must not be empty
+	 */
+	public long firstKey() {
+		int node = root;
+		while (left[node] != NIL)
+			node = left[node];
+		return keys[node];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		root = NIL;
+		size = 0;
+	}
+
+	private boolean less(int a, int b) {
+		return keys[a] < keys[b] || (keys[a] == keys[b] && a < b);
+	}
+
+	private int nextPriority() {
+		// xorshift64
+		seed ^= seed << 13;
+		seed ^= seed >>> 7;
+		seed ^= seed << 17;
+		return (int) (seed >>> 33);
+	}
+}
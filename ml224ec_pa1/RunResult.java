@@ -0,0 +1,113 @@
+/**
+ * Immutable outcome of one round robin run of a workload: CT, TAT and WT of
+ * every process in workload order, and the {@link SweepResult} summary.
+ */
+public final class RunResult {
+
+	private final long fingerprint;
+	private final int tq;
+	private final long[] completed;
+	private final long[] turnaround;
+	private final long[] waiting;
+	private final SweepResult summary;
+
+	private RunResult(long fingerprint, int tq, ProcessTable table, SweepResult summary) {
+		this.fingerprint = fingerprint;
+		this.tq = tq;
+		int n = table.size();
+		completed = new long[n];
+		turnaround = new long[n];
+		waiting = new long[n];
+		for (int i = 0; i < n; i++)
+		{
+			completed[i] = table.getCompletedTime(i);
+			turnaround[i] = table.getTurnaroundTime(i);
+			waiting[i] = table.getWaitingTime(i);
+		}
+		this.summary = summary;
+	}
+
+	/**
+	 * Run a workload on the calling thread
+	 */
+	public static RunResult run(Workload workload, int tq) {
+		ProcessTable table = workload.toTable();
+		TableRR engine = new TableRR(table, tq);
+		RunStatistics statistics = new RunStatistics();
+		engine.setStatistics(statistics);
+		engine.run();
+		SweepResult summary = SweepResult.of(workload.getName(), tq, table, engine.getContextSwitches(), engine.getIdleTime(), statistics);
+		return new RunResult(workload.fingerprint(), tq, table, summary);
+	}
+
+	/**
+	 * Result of a workload whose table already holds the completed times of a run
+	 */
+	static RunResult of(Workload workload, int tq, ProcessTable table, long contextSwitches, long idleTime) {
+		SweepResult summary = SweepResult.of(workload.getName(), tq, table, contextSwitches, idleTime);
+		return new RunResult(workload.fingerprint(), tq, table, summary);
+	}
+
+	private RunResult(RunResult other, SweepResult summary) {
+		this.fingerprint = other.fingerprint;
+		this.tq = other.tq;
+		this.completed = other.completed;
+		this.turnaround = other.turnaround;
+		this.waiting = other.waiting;
+		this.summary = summary;
+	}
+
+	/**
+	 * This result with the summary under another workload name
+	 */
+	public RunResult withWorkload(String workload) {
+		SweepResult renamed = summary.withWorkload(workload);
+		return renamed == summary ? this : new RunResult(this, renamed);
+	}
+
+	public long getFingerprint() {
+		return fingerprint;
+	}
+
+	public int getTimeQuantum() {
+		return tq;
+	}
+
+	public int size() {
+		return completed.length;
+	}
+
+	public long getCompletedTime(int index) {
+		return completed[index];
+	}
+
+	public long getTurnaroundTime(int index) {
+		return turnaround[index];
+	}
+
+	public long getWaitingTime(int index) {
+		return waiting[index];
+	}
+
+	public SweepResult getSummary() {
+		return summary;
+	}
+
+	/**
+	 * Complete the rows of a table holding the same workload, in workload order
+	 */
+	public void writeTo(ProcessTable table) {
+		if (table.size() != completed.length)
+			throw new IllegalArgumentException("Table does not hold the workload of this result");
+		for (int i = 0; i < completed.length; i++)
+			table.complete(i, completed[i]);
+	}
+
+	/**
+	 * Rough number of bytes kept alive by this result
+	 */
+	long estimateSize() {
+		// Three columns and the two histograms of the summary
+		return 24L * completed.length + 2 * 8 * LogHistogram.BUCKETS + 256;
+	}
+}
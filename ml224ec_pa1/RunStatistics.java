@@ -0,0 +1,69 @@
+/**
+ * Turnaround and waiting time distributions of a run, recorded as each
+ * process completes. Memory does not grow with the number of processes, and
+ * statistics of separate runs can be merged.
+ */
+public class RunStatistics implements CompletionListener {
+
+	private final LogHistogram turnaroundTimes = new LogHistogram();
+	private final LogHistogram waitingTimes = new LogHistogram();
+
+	public RunStatistics() {
+	}
+
+	public RunStatistics(RunStatistics other) {
+		merge(other);
+	}
+
+	@Override
+	public void completed(int pid, long arrivalTime, long burstTime, long completedTime) {
+		long tat = completedTime - arrivalTime;
+		turnaroundTimes.record(tat);
+		waitingTimes.record(tat - burstTime);
+	}
+
+	/**
+	 * Record length turnaround and matching waiting times from offset on, in bulk
+	 */
+	public void recordAll(long[] turnaroundTimes, long[] waitingTimes, int offset, int length) {
+		this.turnaroundTimes.recordAll(turnaroundTimes, offset, length);
+		this.waitingTimes.recordAll(waitingTimes, offset, length);
+	}
+
+	public void merge(RunStatistics other) {
+		turnaroundTimes.merge(other.turnaroundTimes);
+		waitingTimes.merge(other.waitingTimes);
+	}
+
+	public void reset() {
+		turnaroundTimes.reset();
+		waitingTimes.reset();
+	}
+
+	public long getCount() {
+		return turnaroundTimes.getCount();
+	}
+
+	public LogHistogram getTurnaroundTimes() {
+		return turnaroundTimes;
+	}
+
+	public LogHistogram getWaitingTimes() {
+		return waitingTimes;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append(String.format("Statistics of %d processes\n", getCount()));
+		sb.append("\t| mean\t| p50\t| p95\t| p99\t| max\n");
+		append(sb, "TAT", turnaroundTimes);
+		append(sb, "WT", waitingTimes);
+		return sb.toString();
+	}
+
+	private static void append(StringBuilder sb, String name, LogHistogram h) {
+		sb.append(String.format("%s\t| %.2f\t| %d\t| %d\t| %d\t| %d\n",
+				name, h.getMean(), h.getPercentile(50), h.getPercentile(95), h.getPercentile(99), h.getMax()));
+	}
+}
@@ -0,0 +1,50 @@
+/**
+ * Non-preemptive shortest job first. The ready process with the shortest
+ * burst runs to completion, ties go to the earliest arrival.
+ */
+public class SJFPolicy implements SchedulingPolicy {
+
+	private ProcessTable table;
+	private IndexedHeap heap;
+
+	@Override
+	public void reset(ProcessTable table) {
+		this.table = table;
+		heap = new IndexedHeap(table.size());
+	}
+
+	@Override
+	public void arrive(int row, long time) {
+		heap.add(row, table.getBurstTime(row));
+	}
+
+	@Override
+	public void requeue(int row, long time) {
+		heap.add(row, table.getBurstTime(row));
+	}
+
+	@Override
+	public int select(long time) {
+		return heap.poll();
+	}
+
+	@Override
+	public long quantum(int row) {
+		return Long.MAX_VALUE;
+	}
+
+	@Override
+	public boolean preemptsOnArrival() {
+		return false;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return heap.isEmpty();
+	}
+
+	@Override
+	public String getName() {
+		return "SJF";
+	}
+}
@@ -0,0 +1,51 @@
+/**
+ * Shortest remaining time first, the preemptive version of SJF. Every arrival
+ * is a decision point, the process with the least remaining burst runs and
+ * ties go to the earliest arrival, which includes the running process.
+ */
+public class SRTFPolicy implements SchedulingPolicy {
+
+	private ProcessTable table;
+	private IndexedHeap heap;
+
+	@Override
+	public void reset(ProcessTable table) {
+		this.table = table;
+		heap = new IndexedHeap(table.size());
+	}
+
+	@Override
+	public void arrive(int row, long time) {
+		heap.add(row, table.getRemainingBurstTime(row));
+	}
+
+	@Override
+	public void requeue(int row, long time) {
+		heap.add(row, table.getRemainingBurstTime(row));
+	}
+
+	@Override
+	public int select(long time) {
+		return heap.poll();
+	}
+
+	@Override
+	public long quantum(int row) {
+		return Long.MAX_VALUE;
+	}
+
+	@Override
+	public boolean preemptsOnArrival() {
+		return true;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return heap.isEmpty();
+	}
+
+	@Override
+	public String getName() {
+		return "SRTF";
+	}
+}
@@ -0,0 +1,261 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Reads the columnar files written by {@link ScheduleWriter}. The footer is
+ * read when opening, columns are decoded on demand through memory mapped
+ * windows, so a column can be far larger than the heap or than a 2 GB
+ * mapping:
+ *
+ * for (ScheduleReader.Column c = reader.column("events", "start"); c.next();)
+ *     use(c.value());
+ */
+public class ScheduleReader implements Closeable {
+
+	// Bytes mapped at a time
+	private static final long WINDOW = 256L << 20;
+
+	private final FileChannel channel;
+	private final long windowSize;
+	private final int version;
+	private final LinkedHashMap<String, Long> metadata = new LinkedHashMap<String, Long>();
+	private final ArrayList<ColumnInfo> columns = new ArrayList<ColumnInfo>();
+
+	private ScheduleReader(Path path, long windowSize) throws IOException {
+		channel = FileChannel.open(path, StandardOpenOption.READ);
+		this.windowSize = Math.max(windowSize, 16);
+		try {
+			long size = channel.size();
+			if (size < 8 + ScheduleWriter.TRAILER_SIZE)
+				throw new IOException(path + " is not a schedule file");
+
+			ByteBuffer start = channel.map(FileChannel.MapMode.READ_ONLY, 0, 8).order(ByteOrder.LITTLE_ENDIAN);
+			ByteBuffer trailer = channel.map(FileChannel.MapMode.READ_ONLY, size - ScheduleWriter.TRAILER_SIZE, ScheduleWriter.TRAILER_SIZE)
+					.order(ByteOrder.LITTLE_ENDIAN);
+			long footerOffset = trailer.getLong();
+			if (start.getInt() != ScheduleWriter.MAGIC || trailer.getInt() != ScheduleWriter.MAGIC
+					|| footerOffset < 8 || footerOffset > size - ScheduleWriter.TRAILER_SIZE)
+				throw new IOException(path + " is not a schedule file");
+			version = start.getInt();
+			if (version != ScheduleWriter.VERSION)
+				throw new IOException("Unsupported schedule version " + version);
+
+			ByteBuffer footer = channel.map(FileChannel.MapMode.READ_ONLY, footerOffset, size - ScheduleWriter.TRAILER_SIZE - footerOffset);
+			long entries = Varint.getUnsigned(footer);
+			for (long i = 0; i < entries; i++)
+				metadata.put(getString(footer), Varint.getSigned(footer));
+			long count = Varint.getUnsigned(footer);
+			for (long i = 0; i < count; i++)
+				columns.add(new ColumnInfo(getString(footer), getString(footer), footer.get(),
+						Varint.getUnsigned(footer), Varint.getUnsigned(footer), Varint.getUnsigned(footer)));
+		} catch (IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	public static ScheduleReader open(Path path) throws IOException {
+		return new ScheduleReader(path, WINDOW);
+	}
+
+	// Small windows let tests cross window boundaries
+	static ScheduleReader open(Path path, long windowSize) throws IOException {
+		return new ScheduleReader(path, windowSize);
+	}
+
+	public int getVersion() {
+		return version;
+	}
+
+	public Set<String> getMetadataKeys() {
+		return Collections.unmodifiableSet(metadata.keySet());
+	}
+
+	public boolean hasMetadata(String key) {
+		return metadata.containsKey(key);
+	}
+
+	public long getMetadata(String key) {
+		Long value = metadata.get(key);
+		if (value == null)
+			throw new IllegalArgumentException("No metadata " + key);
+		return value;
+	}
+
+	/**
+	 * Names of the columns of a table, in file order
+	 */
+	public List<String> getColumnNames(String table) {
+		ArrayList<String> names = new ArrayList<String>();
+		for (ColumnInfo info : columns)
+			if (info.table.equals(table))
+				names.add(info.name);
+		return names;
+	}
+
+	public boolean hasColumn(String table, String name) {
+		return find(table, name) != null;
+	}
+
+	/**
+	 * Number of rows of a table, 0 when the file does not have it
+	 */
+	public long getRows(String table) {
+		for (ColumnInfo info : columns)
+			if (info.table.equals(table))
+				return info.rows;
+		return 0;
+	}
+
+	/**
+	 * A new cursor over the values of a column
+	 */
+	public Column column(String table, String name) throws IOException {
+		ColumnInfo info = find(table, name);
+		if (info == null)
+			throw new IllegalArgumentException("No column " + table + "." + name);
+		return new Column(info);
+	}
+
+	/**
+	 * Load the processes and their results into a table
+	 */
+	public ProcessTable toTable(Storage storage) throws IOException {
+		long rows = getRows("processes");
+		ProcessTable table = new ProcessTable((int) Math.min(Math.max(rows, 1), Integer.MAX_VALUE - 8), storage);
+		Column pid = column("processes", "pid");
+		Column arrival = column("processes", "arrival");
+		Column burst = column("processes", "burst");
+		Column completed = column("processes", "completed");
+		while (pid.next() && arrival.next() && burst.next() && completed.next())
+		{
+			int row = table.add((int) pid.value(), arrival.value(), burst.value());
+			table.complete(row, completed.value());
+		}
+		return table;
+	}
+
+	/**
+	 * Load the slices into an event log, null when the file has none
+	 */
+	public EventLog toEventLog(Storage storage) throws IOException {
+		if (!hasColumn("events", "pid"))
+			return null;
+		long rows = getRows("events");
+		EventLog log = new EventLog((int) Math.min(Math.max(rows, 1), Integer.MAX_VALUE - 8), storage);
+		Column pid = column("events", "pid");
+		Column start = column("events", "start");
+		Column length = column("events", "length");
+		while (pid.next() && start.next() && length.next())
+			log.add((int) pid.value(), start.value(), start.value() + length.value());
+		return log;
+	}
+
+	private ColumnInfo find(String table, String name) {
+		for (ColumnInfo info : columns)
+			if (info.table.equals(table) && info.name.equals(name))
+				return info;
+		return null;
+	}
+
+	private static String getString(ByteBuffer buffer) {
+		byte[] utf8 = new byte[(int) Varint.getUnsigned(buffer)];
+		buffer.get(utf8);
+		return new String(utf8, StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	private static final class ColumnInfo {
+		final String table;
+		final String name;
+		final byte encoding;
+		final long rows;
+		final long offset;
+		final long length;
+
+		ColumnInfo(String table, String name, byte encoding, long rows, long offset, long length) {
+			this.table = table;
+			this.name = name;
+			this.encoding = encoding;
+			this.rows = rows;
+			this.offset = offset;
+			this.length = length;
+		}
+	}
+
+	/**
+	 * Forward cursor decoding one column
+	 */
+	public final class Column {
+		private final byte encoding;
+		private final long rows;
+		private final long end;     // file offset just past the column
+
+		private MappedByteBuffer buffer;
+		private long bufferStart;   // file offset of the mapped window
+		private long read;
+		private long value;
+
+		private Column(ColumnInfo info) throws IOException {
+			encoding = info.encoding;
+			rows = info.rows;
+			end = info.offset + info.length;
+			map(info.offset);
+		}
+
+		private void map(long position) throws IOException {
+			long size = Math.min(windowSize, end - position);
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+			bufferStart = position;
+		}
+
+		public boolean next() throws IOException {
+			if (read == rows)
+				return false;
+			// A varint takes up to 10 bytes, do not let one straddle the window
+			if (buffer.remaining() < 10 && bufferStart + buffer.limit() < end)
+				map(bufferStart + buffer.position());
+
+			switch (encoding)
+			{
+			case ScheduleWriter.VARINT:
+				value = Varint.getUnsigned(buffer);
+				break;
+			case ScheduleWriter.ZIGZAG:
+				value = Varint.getSigned(buffer);
+				break;
+			case ScheduleWriter.DELTA:
+				value += Varint.getSigned(buffer);
+				break;
+			default:
+				throw new IOException("Unknown column encoding " + encoding);
+			}
+			read++;
+			return true;
+		}
+
+		public long value() {
+			return value;
+		}
+
+		public long getRows() {
+			return rows;
+		}
+	}
+}
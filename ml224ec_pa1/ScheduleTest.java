@@ -0,0 +1,88 @@
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+
+public class ScheduleTest {
+
+	@org.junit.Test
+	public void test1() throws IOException {
+		// Results, slices and metadata come back exactly, also through tiny mapping windows
+		Path file = Files.createTempFile("schedule", ".rrs");
+		try {
+			ProcessTable table = WorkloadGenerator.generate(WorkloadGenerator.Kind.BURSTY, 20000, 5);
+			EventLog log = new EventLog();
+			TableRR engine = new TableRR(table, 3, log);
+			engine.setStatistics(new RunStatistics());
+			engine.setRoundSkipping(true);
+			engine.run();
+			ScheduleWriter.write(file, engine);
+			EventLog expanded = log.expand();
+
+			for (long window : new long[]{16, 1000, 1 << 20}) {
+				try (ScheduleReader reader = ScheduleReader.open(file, window)) {
+					assertEquals(3, reader.getMetadata("tq"));
+					assertEquals(engine.getContextSwitches(), reader.getMetadata("contextSwitches"));
+					assertEquals(engine.getIdleTime(), reader.getMetadata("idleTime"));
+					assertEquals(engine.getStatistics().getWaitingTimes().getPercentile(99), reader.getMetadata("waitingTimeP99"));
+					assertEquals(table.size(), reader.getRows("processes"));
+					assertTrue(reader.getColumnNames("processes").contains("turnaround"));
+
+					ProcessTable loaded = reader.toTable(Storage.HEAP);
+					assertEquals(table.size(), loaded.size());
+					for (int i = 0; i < table.size(); i++) {
+						assertEquals(table.getProcessId(i), loaded.getProcessId(i));
+						assertEquals(table.getArrivalTime(i), loaded.getArrivalTime(i));
+						assertEquals(table.getBurstTime(i), loaded.getBurstTime(i));
+						assertEquals(table.getCompletedTime(i), loaded.getCompletedTime(i));
+						assertEquals(table.getWaitingTime(i), loaded.getWaitingTime(i));
+					}
+
+					int i = 0;
+					for (ScheduleReader.Column c = reader.column("processes", "turnaround"); c.next(); i++)
+						assertEquals(table.getTurnaroundTime(i), c.value());
+					assertEquals(table.size(), i);
+
+					EventLog events = reader.toEventLog(Storage.HEAP);
+					assertEquals(expanded.size(), events.size());
+					for (int e = 0; e < events.size(); e++) {
+						assertEquals(expanded.getPid(e), events.getPid(e));
+						assertEquals(expanded.getStart(e), events.getStart(e));
+						assertEquals(expanded.getEnd(e), events.getEnd(e));
+					}
+				}
+			}
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@org.junit.Test
+	public void test2() throws IOException {
+		// Other files are rejected, a table without a log has no events
+		Path file = Files.createTempFile("schedule", ".rrs");
+		try {
+			Files.write(file, "pid,arrival,burst\n1,0,4\n".getBytes());
+			try {
+				ScheduleReader.open(file).close();
+				fail("Opened a CSV file");
+			} catch (IOException e) {
+			}
+
+			ProcessTable table = new ProcessTable();
+			table.add(1, 0, 4);
+			new TableRR(table, 2).run();
+			ScheduleWriter.write(file, table, null, Collections.emptyMap());
+			try (ScheduleReader reader = ScheduleReader.open(file)) {
+				assertEquals(1, reader.getMetadata("processes"));
+				assertNull(reader.toEventLog(Storage.HEAP));
+				assertEquals(4, reader.toTable(Storage.HEAP).getCompletedTime(0));
+			}
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+}
@@ -0,0 +1,256 @@
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exports the results of a run, the per-process table and the slice event
+ * log, to a columnar file that {@link ScheduleReader} maps back in. Every
+ * column is stored on its own as varints, most of them as deltas from the
+ * previous value, so sorted times and contiguous slices take a byte or two.
+ *
+ * The file describes itself through a footer, written after the columns:
+ *
+ * start:   int magic "RRSC", int version
+ * columns: the encoded values of each column, one after the other
+ * footer:  varint number of metadata entries, each a string key and a
+ *          zigzag varint value, then varint number of columns, each a string
+ *          table, string name, byte encoding, varint rows, varint offset and
+ *          varint length in bytes
+ * end:     long offset of the footer, int magic
+ *
+ * Strings are a varint length followed by UTF-8 bytes. Fixed width values
+ * are little endian. Round events of the log are written out as slices.
+ */
+public class ScheduleWriter {
+
+	static final int MAGIC = 0x43535252; // "RRSC" when read little endian
+	static final int VERSION = 1;
+	static final int TRAILER_SIZE = 12;
+
+	// Column encodings
+	static final byte VARINT = 0;   // unsigned varint
+	static final byte ZIGZAG = 1;   // zigzag varint
+	static final byte DELTA = 2;    // zigzag varint of the difference from the previous value
+
+	private static final int BUFFER_SIZE = 1 << 20;
+
+	private final FileChannel channel;
+	private final byte[] bytes = new byte[BUFFER_SIZE];
+	private final ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+	private int pos;      // bytes buffered
+	private long written; // bytes flushed to the file
+
+	private final LinkedHashMap<String, Long> metadata = new LinkedHashMap<String, Long>();
+
+	// Column directory of the footer
+	private final ByteArrayOutputStream directoryBytes = new ByteArrayOutputStream();
+	private final DataOutputStream directory = new DataOutputStream(directoryBytes);
+	private int columns;
+
+	// Column being written
+	private byte encoding;
+	private long previous;
+	private long rows;
+	private long columnStart;
+
+	private ScheduleWriter(Path path) throws IOException {
+		channel = FileChannel.open(path, StandardOpenOption.WRITE,
+				StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+		buffer.putInt(MAGIC).putInt(VERSION);
+		pos = buffer.position();
+	}
+
+	/**
+	 * Export a run of an engine, with its time quantum, counters and
+	 * percentiles of its statistics when it has any as metadata
+	 */
+	public static void write(Path path, TableRR engine) throws IOException {
+		Map<String, Long> metadata = new LinkedHashMap<String, Long>();
+		metadata.put("tq", (long) engine.getTimeQuantum());
+		metadata.put("contextSwitches", engine.getContextSwitches());
+		metadata.put("idleTime", engine.getIdleTime());
+		RunStatistics statistics = engine.getStatistics();
+		if (statistics != null && statistics.getCount() > 0)
+		{
+			for (int percentile : new int[]{50, 90, 99})
+			{
+				metadata.put("turnaroundTimeP" + percentile, statistics.getTurnaroundTimes().getPercentile(percentile));
+				metadata.put("waitingTimeP" + percentile, statistics.getWaitingTimes().getPercentile(percentile));
+			}
+		}
+		write(path, engine.getTable(), engine.getEventLog(), metadata);
+	}
+
+	/**
+	 * Export a completed table, and an event log unless it is null
+	 */
+	public static void write(Path path, ProcessTable table, EventLog log, Map<String, Long> metadata) throws IOException {
+		ScheduleWriter writer = new ScheduleWriter(path);
+		try {
+			writer.metadata.putAll(metadata);
+			writer.metadata.put("processes", (long) table.size());
+			writer.writeProcesses(table);
+			if (log != null)
+				writer.writeEvents(log);
+			writer.finish();
+		} finally {
+			writer.channel.close();
+		}
+	}
+
+	private void writeProcesses(ProcessTable table) throws IOException {
+		int n = table.size();
+		begin(DELTA);
+		for (int i = 0; i < n; i++)
+			put(table.getProcessId(i));
+		end("processes", "pid");
+		begin(DELTA);
+		for (int i = 0; i < n; i++)
+			put(table.getArrivalTime(i));
+		end("processes", "arrival");
+		begin(VARINT);
+		for (int i = 0; i < n; i++)
+			put(table.getBurstTime(i));
+		end("processes", "burst");
+		begin(DELTA);
+		for (int i = 0; i < n; i++)
+			put(table.getCompletedTime(i));
+		end("processes", "completed");
+		begin(VARINT);
+		for (int i = 0; i < n; i++)
+			put(table.getTurnaroundTime(i));
+		end("processes", "turnaround");
+		begin(VARINT);
+		for (int i = 0; i < n; i++)
+			put(table.getWaitingTime(i));
+		end("processes", "waiting");
+	}
+
+	// Event columns, written in one pass over the log each
+	private static final int PID = 0, START = 1, LENGTH = 2;
+
+	private void writeEvents(EventLog log) throws IOException {
+		begin(ZIGZAG);
+		writeEvents(log, PID);
+		end("events", "pid");
+		begin(DELTA);
+		writeEvents(log, START);
+		end("events", "start");
+		begin(VARINT);
+		writeEvents(log, LENGTH);
+		end("events", "length");
+	}
+
+	private void writeEvents(EventLog log, int field) throws IOException {
+		for (int i = 0; i < log.size(); i++)
+		{
+			long start = log.getStart(i);
+			long end = log.getEnd(i);
+			if (!log.isRounds(i))
+			{
+				put(field == PID ? log.getPid(i) : field == START ? start : end - start);
+				continue;
+			}
+
+			// Write out the slices of a round event
+			int k = log.getRoundSize(i);
+			long slice = log.getRoundSlice(i);
+			for (long t = start; t < end;)
+				for (int j = 0; j < k; j++, t += slice)
+					put(field == PID ? log.getRoundPid(i, j) : field == START ? t : slice);
+		}
+	}
+
+	private void begin(byte encoding) {
+		this.encoding = encoding;
+		previous = 0;
+		rows = 0;
+		columnStart = written + pos;
+	}
+
+	private void put(long value) throws IOException {
+		if (pos > BUFFER_SIZE - 10)
+			flush();
+		switch (encoding)
+		{
+		case VARINT:
+			pos = Varint.putUnsigned(bytes, pos, value);
+			break;
+		case ZIGZAG:
+			pos = Varint.putSigned(bytes, pos, value);
+			break;
+		default:
+			pos = Varint.putSigned(bytes, pos, value - previous);
+			previous = value;
+			break;
+		}
+		rows++;
+	}
+
+	private void end(String table, String name) throws IOException {
+		putString(directory, table);
+		putString(directory, name);
+		directory.writeByte(encoding);
+		Varint.writeUnsigned(directory, rows);
+		Varint.writeUnsigned(directory, columnStart);
+		Varint.writeUnsigned(directory, written + pos - columnStart);
+		columns++;
+	}
+
+	private void finish() throws IOException {
+		long footerOffset = written + pos;
+
+		ByteArrayOutputStream footer = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(footer);
+		Varint.writeUnsigned(out, metadata.size());
+		for (Map.Entry<String, Long> entry : metadata.entrySet())
+		{
+			putString(out, entry.getKey());
+			Varint.writeSigned(out, entry.getValue());
+		}
+		Varint.writeUnsigned(out, columns);
+		directoryBytes.writeTo(out);
+
+		putBytes(footer.toByteArray());
+		if (pos > BUFFER_SIZE - TRAILER_SIZE)
+			flush();
+		buffer.position(pos);
+		buffer.putLong(footerOffset).putInt(MAGIC);
+		pos = buffer.position();
+		flush();
+	}
+
+	private void putBytes(byte[] source) throws IOException {
+		for (int from = 0; from < source.length;)
+		{
+			if (pos == BUFFER_SIZE)
+				flush();
+			int n = Math.min(source.length - from, BUFFER_SIZE - pos);
+			System.arraycopy(source, from, bytes, pos, n);
+			from += n;
+			pos += n;
+		}
+	}
+
+	private void flush() throws IOException {
+		ByteBuffer out = ByteBuffer.wrap(bytes, 0, pos);
+		while (out.hasRemaining())
+			channel.write(out);
+		written += pos;
+		pos = 0;
+	}
+
+	private static void putString(DataOutputStream out, String value) throws IOException {
+		byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+		Varint.writeUnsigned(out, utf8.length);
+		out.write(utf8);
+	}
+}
@@ -0,0 +1,52 @@
+/**
+ * Decides which process runs next for the shared {@link Simulator} core.
+ * Processes are referred to by their row in the {@link ProcessTable}, and
+ * rows are in order of arrival.
+ *
+ * The simulator calls the policy in this order at every decision point:
+ * arrive() for each new arrival, requeue() for the process that just ran
+ * (unless it completed), then select() to pick the next process.
+ */
+public interface SchedulingPolicy {
+
+	/**
+	 * Prepare for a new run over the given table
+	 */
+	void reset(ProcessTable table);
+
+	/**
+	 * A process has arrived and is ready to run
+	 */
+	void arrive(int row, long time);
+
+	/**
+	 * The process that just ran has not completed and is ready again
+	 */
+	void requeue(int row, long time);
+
+	/**
+	 * Remove and return the next process to run, -1 when nothing is ready
+	 */
+	int select(long time);
+
+	/**
+	 * How long the selected process may run before the next decision,
+	 * Long.MAX_VALUE lets it run until completion
+	 */
+	long quantum(int row);
+
+	/**
+	 * Whether the running process is interrupted when a new process arrives
+	 */
+	boolean preemptsOnArrival();
+
+	/**
+	 * Called after the selected process has run for duration, ending at time
+	 */
+	default void ran(int row, long time, long duration) {
+	}
+
+	boolean isEmpty();
+
+	String getName();
+}
@@ -0,0 +1,164 @@
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+
+public class SchedulingPolicyTest {
+
+	private static ProcessTable table(int[][] processes) {
+		ProcessTable table = new ProcessTable();
+		for (int[] p : processes)
+			table.add(p[0], p[1], p[2]);
+		return table;
+	}
+
+	private static void check(ProcessTable table, int[] processIds, int[] processCT) {
+		for (int i = 0; i < table.size(); i++) {
+			assertEquals(processIds[i], table.getProcessId(i));
+			assertEquals(processCT[i], table.getCompletedTime(i));
+			assertEquals(table.getCompletedTime(i) - table.getArrivalTime(i), table.getTurnaroundTime(i));
+			assertEquals(table.getTurnaroundTime(i) - table.getBurstTime(i), table.getWaitingTime(i));
+		}
+	}
+
+	@org.junit.Test
+	public void test1() {
+		// The round robin policy must give exactly what RR gives
+		Random random = new Random(2);
+		for (int run = 0; run < 50; run++) {
+			ArrayList<Process> expected = new ArrayList<Process>();
+			for (int i = 0; i < 100; i++)
+				expected.add(new Process(i + 1, random.nextInt(1000), 1 + random.nextInt(20)));
+			ProcessTable table = ProcessTable.of(expected);
+			int tq = 1 + random.nextInt(6);
+
+			RR scheduler = new RR(expected, tq);
+			scheduler.run();
+			EventLog log = new EventLog();
+			new Simulator(table, new RoundRobinPolicy(tq), log).run();
+
+			for (int i = 0; i < expected.size(); i++) {
+				assertEquals(expected.get(i).getProcessId(), table.getProcessId(i));
+				assertEquals(expected.get(i).getCompletedTime(), table.getCompletedTime(i));
+				assertEquals(expected.get(i).getWaitingTime(), table.getWaitingTime(i));
+			}
+			assertEquals(scheduler.getEventLog().size(), log.size());
+		}
+	}
+
+	@org.junit.Test
+	public void test2() {
+		ProcessTable table = table(new int[][]{{1, 0, 24}, {2, 0, 3}, {3, 0, 3}});
+		new Simulator(table, new FCFSPolicy()).run();
+		check(table, new int[]{1, 2, 3}, new int[]{24, 27, 30});
+	}
+
+	@org.junit.Test
+	public void test3() {
+		ProcessTable table = table(new int[][]{{1, 0, 8}, {2, 1, 4}, {3, 2, 9}, {4, 3, 5}});
+		new Simulator(table, new SJFPolicy()).run();
+		check(table, new int[]{1, 2, 3, 4}, new int[]{8, 12, 26, 17});
+	}
+
+	@org.junit.Test
+	public void test4() {
+		ProcessTable table = table(new int[][]{{1, 0, 8}, {2, 1, 4}, {3, 2, 9}, {4, 3, 5}});
+		Simulator simulator = new Simulator(table, new SRTFPolicy());
+		simulator.run();
+		check(table, new int[]{1, 2, 3, 4}, new int[]{17, 5, 26, 10});
+		assertEquals(4, simulator.getContextSwitches());
+	}
+
+	@org.junit.Test
+	public void test5() {
+		// Lower value is higher priority, P3 preempts P1 and P2 waits for both
+		ProcessTable table = table(new int[][]{{1, 0, 5}, {2, 1, 3}, {3, 2, 2}});
+		table.setPriority(0, 2);
+		table.setPriority(1, 3);
+		table.setPriority(2, 1);
+		new Simulator(table, new PriorityPolicy()).run();
+		check(table, new int[]{1, 2, 3}, new int[]{7, 10, 4});
+	}
+
+	@org.junit.Test
+	public void test6() {
+		// P1 keeps its turn when P2 arrives, then gets demoted to a quantum of 4 and later 8
+		ProcessTable table = table(new int[][]{{1, 0, 10}, {2, 1, 2}});
+		EventLog log = new EventLog();
+		new Simulator(table, new MLFQPolicy(2, 3), log).run();
+		check(table, new int[]{1, 2}, new int[]{12, 4});
+		assertEquals(3, log.size());
+	}
+
+	@org.junit.Test
+	public void test7() {
+		// Equal weights share the CPU like round robin
+		ProcessTable table = table(new int[][]{{1, 0, 4}, {2, 0, 4}});
+		new Simulator(table, new CFSPolicy(2)).run();
+		check(table, new int[]{1, 2}, new int[]{6, 8});
+
+		// A lower nice value gets a larger share
+		table = table(new int[][]{{1, 0, 6}, {2, 0, 6}});
+		table.setPriority(0, -5);
+		new Simulator(table, new CFSPolicy(1)).run();
+		assertTrue(table.getCompletedTime(0) < 9);
+		assertEquals(12, table.getCompletedTime(1));
+	}
+
+	@org.junit.Test
+	public void test8() {
+		// Ticket lookup agrees with a linear scan
+		Random random = new Random(8);
+		FenwickTree tree = new FenwickTree(4);
+		long[] values = new long[300];
+		for (int round = 0; round < 2000; round++) {
+			int row = random.nextInt(values.length);
+			values[row] = random.nextInt(4) == 0 ? 0 : random.nextInt(100);
+			tree.set(row, values[row]);
+			if (tree.getTotal() == 0)
+				continue;
+			long target = (long) (random.nextDouble() * tree.getTotal());
+			int expected = 0;
+			for (long sum = values[0]; sum <= target; sum += values[++expected])
+				;
+			assertEquals(expected, tree.find(target));
+			assertEquals(values[expected], tree.get(expected));
+		}
+
+		// The same seed gives the same schedule, and shares follow the weights
+		ProcessTable[] tables = new ProcessTable[2];
+		EventLog[] logs = new EventLog[2];
+		for (int i = 0; i < 2; i++) {
+			tables[i] = table(new int[][]{{1, 0, 3000}, {2, 0, 3000}});
+			logs[i] = new EventLog();
+			Simulator simulator = new Simulator(tables[i], new LotteryPolicy(1, 42, pid -> pid == 1 ? 3 : 1), logs[i]);
+			simulator.run();
+			assertEquals(2, simulator.getStatistics().getCount());
+		}
+		assertEquals(logs[0].size(), logs[1].size());
+		for (int i = 0; i < logs[0].size(); i++)
+			assertEquals(logs[0].getPid(i), logs[1].getPid(i));
+		assertTrue(Math.abs(tables[0].getCompletedTime(0) - 4000) < 200);
+		assertEquals(6000, tables[0].getCompletedTime(1));
+	}
+
+	@org.junit.Test
+	public void test9() {
+		// Twice the weight runs twice as often: P1 P1 P2 P1 P1 P2
+		ProcessTable table = table(new int[][]{{1, 0, 4}, {2, 0, 2}});
+		EventLog log = new EventLog();
+		Simulator simulator = new Simulator(table, new StridePolicy(1, pid -> pid == 1 ? 2 : 1), log);
+		simulator.run();
+		check(table, new int[]{1, 2}, new int[]{5, 6});
+		assertEquals(3, simulator.getContextSwitches());
+		assertEquals(2, simulator.getStatistics().getCount());
+
+		// Nice values from the priority column, a late arrival does not take over the CPU
+		table = table(new int[][]{{1, 0, 100}, {2, 50, 10}});
+		table.setPriority(1, -5);
+		new Simulator(table, new StridePolicy(2)).run();
+		assertTrue(table.getCompletedTime(1) < 70);
+		assertEquals(110, table.getCompletedTime(0));
+	}
+}
@@ -0,0 +1,115 @@
+/**
+ * Shared single CPU simulation core. Arrival handling, the clock, idle time,
+ * statistics and the Gantt event log live here, while the choice of what
+ * runs next is left to a {@link SchedulingPolicy}.
+ */
+public class Simulator {
+
+	private final ProcessTable table;
+	private final SchedulingPolicy policy;
+
+	// Optional Gantt event log, nothing is recorded when null
+	private final EventLog eventLog;
+
+	private final RunStatistics statistics = new RunStatistics();
+	private long contextSwitches;
+	private long idleTime;
+
+	public Simulator(ProcessTable table, SchedulingPolicy policy) {
+		this(table, policy, null);
+	}
+
+	public Simulator(ProcessTable table, SchedulingPolicy policy, EventLog eventLog) {
+		this.table = table;
+		this.policy = policy;
+		this.eventLog = eventLog;
+	}
+
+	public void run() {
+		// Obligatory sorting by time of arrival
+		table.sortByArrival();
+		policy.reset(table);
+		statistics.reset();
+		contextSwitches = 0;
+		idleTime = 0;
+
+		int n = table.size();
+		int next = 0;
+		int p = -1;
+		int last = -1;
+		long ct = 0;
+		while (next < n || !policy.isEmpty() || p >= 0)
+		{
+			// Hand new arrivals to the policy
+			while (next < n && ct >= table.getArrivalTime(next))
+				policy.arrive(next++, ct);
+
+			// Give back previous process if not complete
+			if (p >= 0)
+				policy.requeue(p, ct);
+
+			p = policy.select(ct);
+
+			// Idle, jump straight to the next arrival
+			if (p < 0)
+			{
+				long at = table.getArrivalTime(next);
+				if (eventLog != null)
+					eventLog.addIdle(ct, at);
+				idleTime += at - ct;
+				ct = at;
+				continue;
+			}
+
+			if (p != last && last >= 0)
+				contextSwitches++;
+			last = p;
+
+			// Run until the quantum expires, the process completes or, if the policy wants it, the next arrival
+			long bt = table.getRemainingBurstTime(p);
+			long act = Math.min(bt, policy.quantum(p));
+			if (policy.preemptsOnArrival() && next < n)
+				act = Math.min(act, table.getArrivalTime(next) - ct);
+			ct += act;
+
+			if (eventLog != null)
+				eventLog.add(table.getProcessId(p), ct - act, ct);
+			policy.ran(p, ct, act);
+
+			if (bt - act > 0)
+				table.setRemainingBurstTime(p, bt - act);
+			else
+			{
+				table.complete(p, ct);
+				statistics.completed(table.getProcessId(p), table.getArrivalTime(p), table.getBurstTime(p), ct);
+				p = -1;
+			}
+		}
+	}
+
+	public ProcessTable getTable() {
+		return table;
+	}
+
+	public EventLog getEventLog() {
+		return eventLog;
+	}
+
+	/**
+	 * TAT and WT distributions of the last run, like RR.getStatistics()
+	 */
+	public RunStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * Number of times the CPU switched from one process to another
+	 */
+	public long getContextSwitches() {
+		return contextSwitches;
+	}
+
+	public long getIdleTime() {
+		return idleTime;
+	}
+}
@@ -0,0 +1,154 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+
+/**
+ * Where the columns of a {@link ProcessTable} or {@link EventLog} live.
+ *
+ * HEAP keeps them in plain arrays. direct() keeps them in direct byte buffers
+ * outside of the heap, and mapped() in files mapped into memory, so tables
+ * and logs far larger than the heap can be built without the GC ever seeing
+ * them. Off-heap columns are split into chunks of 2^20 elements, so they grow
+ * without copying and are not limited by the 2 GB size of a single buffer.
+ *
+ * Closing a storage releases its files, tables and logs using it must not be
+ * used afterwards. Direct memory is given back once the GC collects the
+ * buffers, its total is capped by -XX:MaxDirectMemorySize.
+ */
+public abstract class Storage implements Closeable {
+
+	// Elements per off-heap chunk
+	static final int CHUNK_SHIFT = 20;
+	static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+	public static final Storage HEAP = new Storage() {
+		@Override
+		LongColumn longs(int capacity) {
+			return new LongColumn(capacity);
+		}
+
+		@Override
+		IntColumn ints(int capacity) {
+			return new IntColumn(capacity);
+		}
+
+		@Override
+		public String toString() {
+			return "heap";
+		}
+	};
+
+	Storage() {
+	}
+
+	/**
+	 * Columns in direct memory outside of the heap
+	 */
+	public static Storage direct() {
+		return new OffHeap() {
+			@Override
+			ByteBuffer chunk(int column, int chunk, int width, int elements, ByteBuffer previous) {
+				ByteBuffer buffer = ByteBuffer.allocateDirect(width * elements).order(ByteOrder.nativeOrder());
+				if (previous != null)
+					buffer.put(previous.duplicate().clear());
+				return buffer;
+			}
+
+			@Override
+			public String toString() {
+				return "direct";
+			}
+		};
+	}
+
+	/**
+	 * Columns in memory mapped files in directory, one file per column.
+	 * The files are scratch space and are deleted when the storage is closed.
+	 */
+	public static Storage mapped(Path directory) throws IOException {
+		Files.createDirectories(directory);
+		return new OffHeap() {
+			private final ArrayList<FileChannel> channels = new ArrayList<FileChannel>();
+			private final ArrayList<Path> files = new ArrayList<Path>();
+
+			@Override
+			ByteBuffer chunk(int column, int chunk, int width, int elements, ByteBuffer previous) {
+				try {
+					FileChannel channel;
+					synchronized (this)
+					{
+						while (channels.size() <= column)
+						{
+							Path file = Files.createTempFile(directory, "column-", ".bin");
+							files.add(file);
+							channels.add(FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE));
+						}
+						channel = channels.get(column);
+					}
+					// Mapping past the end grows the file, a grown first chunk keeps its contents
+					long position = ((long) chunk << CHUNK_SHIFT) * width;
+					return channel.map(FileChannel.MapMode.READ_WRITE, position, (long) width * elements).order(ByteOrder.nativeOrder());
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+
+			@Override
+			public synchronized void close() throws IOException {
+				for (FileChannel channel : channels)
+					channel.close();
+				for (Path file : files)
+					Files.deleteIfExists(file);
+				channels.clear();
+				files.clear();
+			}
+
+			@Override
+			public String toString() {
+				return "mapped " + directory;
+			}
+		};
+	}
+
+	abstract LongColumn longs(int capacity);
+
+	abstract IntColumn ints(int capacity);
+
+	@Override
+	public void close() throws IOException {
+	}
+
+	/**
+	 * Storage whose columns are chunks of byte buffers, numbered in order of creation
+	 */
+	abstract static class OffHeap extends Storage {
+		private int columns;
+
+		@Override
+		LongColumn longs(int capacity) {
+			return new LongColumn(this, nextColumn(), capacity);
+		}
+
+		@Override
+		IntColumn ints(int capacity) {
+			return new IntColumn(this, nextColumn(), capacity);
+		}
+
+		private synchronized int nextColumn() {
+			return columns++;
+		}
+
+		/**
+		 * Buffer for a chunk of a column, elements of width bytes each. A first
+		 * chunk that grows is asked for again with the buffer it replaces.
+		 */
+		abstract ByteBuffer chunk(int column, int chunk, int width, int elements, ByteBuffer previous);
+	}
+}
@@ -0,0 +1,132 @@
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Random;
+
+
+public class StorageTest {
+
+	@org.junit.Test
+	public void test1() throws IOException {
+		// Off-heap tables and logs, just past the first chunk, schedule and print exactly like the heap
+		ProcessTable expected = unsorted(Storage.HEAP);
+		EventLog expectedLog = new EventLog();
+		new TableRR(expected, 6, expectedLog).run();
+		long boundary = expectedLog.getStart(1 << Storage.CHUNK_SHIFT);
+		String expectedChart = render(expectedLog, boundary);
+
+		Path directory = Files.createTempDirectory("storage");
+		Storage[] storages = {Storage.direct(), Storage.mapped(directory)};
+		try {
+			for (Storage storage : storages) {
+				ProcessTable table = unsorted(storage);
+				EventLog log = new EventLog(16, storage);
+				new TableRR(table, 6, log).run();
+
+				assertEquals(expected.size(), table.size());
+				for (int i = 0; i < table.size(); i++) {
+					assertEquals(expected.getProcessId(i), table.getProcessId(i));
+					assertEquals(expected.getCompletedTime(i), table.getCompletedTime(i));
+					assertEquals(expected.getWaitingTime(i), table.getWaitingTime(i));
+				}
+				assertEquals(expectedLog.size(), log.size());
+				for (int i = 0; i < log.size(); i++) {
+					assertEquals(expectedLog.getPid(i), log.getPid(i));
+					assertEquals(expectedLog.getStart(i), log.getStart(i));
+					assertEquals(expectedLog.getEnd(i), log.getEnd(i));
+				}
+
+				// Rendered around the end of the first chunk of the log
+				assertEquals(expectedChart, render(log, boundary));
+			}
+		} finally {
+			for (Storage storage : storages)
+				storage.close();
+			Files.delete(directory);
+		}
+	}
+
+	@org.junit.Test
+	public void test2() throws IOException {
+		// The process list has the same format as RR.printProcesses()
+		ArrayList<Process> processes = new ArrayList<Process>();
+		processes.add(new Process(1, 0, 4));
+		processes.add(new Process(2, 2, 3));
+		processes.add(new Process(3, 1, 1));
+		new RR(processes, 3).run();
+
+		StringBuilder expected = new StringBuilder("Process list\nPID\t| AT\t| BT\t| CT\t| TAT\t| WT\n");
+		for (Process p : processes)
+			expected.append(String.format("%d\t| %d\t| %d\t| %d\t| %d\t| %d\n", p.getProcessId(), p.getArrivalTime(),
+					p.getBurstTime(), p.getCompletedTime(), p.getTurnaroundTime(), p.getWaitingTime()));
+
+		ProcessTable table = new ProcessTable(1, Storage.direct());
+		table.add(1, 0, 4);
+		table.add(2, 2, 3);
+		table.add(3, 1, 1);
+		new TableRR(table, 3).run();
+		StringBuilder actual = new StringBuilder();
+		table.printProcesses(actual);
+		assertEquals(expected.toString(), actual.toString());
+	}
+
+	@org.junit.Test
+	public void test3() throws IOException {
+		// Bulk TAT, WT and statistics are the same as those recorded row by row, on and off the heap
+		try (Storage direct = Storage.direct()) {
+			for (Storage storage : new Storage[]{Storage.HEAP, direct}) {
+				ProcessTable table = unsorted(storage);
+				TableRR engine = new TableRR(table, 3);
+				RunStatistics recorded = new RunStatistics();
+				engine.setStatistics(recorded);
+				engine.run();
+				long[] turnaround = new long[table.size()];
+				for (int i = 0; i < table.size(); i++)
+					turnaround[i] = table.getTurnaroundTime(i);
+
+				RunStatistics bulk = new RunStatistics();
+				table.computeTimes(bulk);
+				for (int i = 0; i < table.size(); i++) {
+					assertEquals(turnaround[i], table.getTurnaroundTime(i));
+					assertEquals(turnaround[i] - table.getBurstTime(i), table.getWaitingTime(i));
+				}
+				assertEquals(recorded.toString(), bulk.toString());
+				assertEquals(recorded.getWaitingTimes().getMin(), bulk.getWaitingTimes().getMin());
+			}
+
+			// Bulk copies across the end of a chunk
+			LongColumn column = direct.longs(16);
+			column.grow((1 << Storage.CHUNK_SHIFT) + 16);
+			long[] values = new long[10];
+			for (int i = 0; i < values.length; i++)
+				values[i] = 100 + i;
+			column.set((1 << Storage.CHUNK_SHIFT) - 4, values, values.length);
+			for (int i = 0; i < values.length; i++)
+				assertEquals(100 + i, column.get((1 << Storage.CHUNK_SHIFT) - 4 + i));
+			long[] copy = new long[values.length];
+			column.get((1 << Storage.CHUNK_SHIFT) - 4, copy, copy.length);
+			assertArrayEquals(values, copy);
+		}
+	}
+
+	// Just over one chunk of rows with a few arrivals out of order
+	private static ProcessTable unsorted(Storage storage) {
+		Random random = new Random(16);
+		ProcessTable table = new ProcessTable(16, storage);
+		long at = 0;
+		for (int i = 0; i < (1 << Storage.CHUNK_SHIFT) + 64; i++) {
+			at += random.nextInt(10);
+			table.add(i + 1, random.nextInt(100) == 0 ? at / 2 : at, 1 + random.nextInt(12));
+		}
+		return table;
+	}
+
+	private static String render(EventLog log, long around) throws IOException {
+		StringBuilder sb = new StringBuilder();
+		new GanttRenderer(log).setWindow(around - 100, around + 100).render(sb);
+		return sb.toString();
+	}
+}
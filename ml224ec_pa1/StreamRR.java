@@ -0,0 +1,289 @@
+import java.util.Arrays;
+
+/**
+ * Round robin that is fed processes while it runs, following the exact rules
+ * of {@link RR#run()}. Processes are handed to a {@link CompletionListener}
+ * as soon as they complete, or kept for {@link #drainCompleted} when there is
+ * no listener, so memory is bounded by the number of processes active at the
+ * same time rather than by the length of the stream.
+ *
+ * Online use:
+ *
+ *   submit() every process arriving at or before t, then advanceTo(t)
+ *   step() runs the next time slice with what has been submitted so far
+ *   finish() runs until everything submitted has completed
+ *
+ * Active processes live in slots of primitive arrays, and the slot of a
+ * completed process is reused by the next arrival.
+ */
+public class StreamRR {
+
+	private final int tq;
+
+	// Optional Gantt event log, nothing is recorded when null
+	private final EventLog eventLog;
+
+	private CompletionListener listener;
+
+	// Slot columns of the active processes
+	private int[] pids = new int[16];
+	private long[] arrivals = new long[16];
+	private long[] bursts = new long[16];
+	private long[] remaining = new long[16];
+	private final IntQueue freeSlots = new IntQueue();
+	private int slots;
+
+	// Submitted slots that have not arrived yet, in order of arrival
+	private final IntQueue pending = new IntQueue();
+	// Run queue of slots
+	private final IntQueue queue = new IntQueue();
+
+	// Completions waiting to be drained, 4 longs each: pid, arrival, burst, completed
+	private long[] done = new long[64];
+	private int doneCount;
+
+	private long ct;         // time of the next decision
+	private long horizon = Long.MIN_VALUE; // no more submissions at or before this time
+	private long lastArrival = Long.MIN_VALUE;
+	private int p = -1;      // slot whose slice ends at ct, -1 if none
+	private int last = -1;   // slot that ran last, -2 once it completed
+
+	private long completed;
+	private long contextSwitches;
+	private long idleTime;
+
+	public StreamRR(int tq) {
+		this(tq, null);
+	}
+
+	public StreamRR(int tq, EventLog eventLog) {
+		if (tq < 1)
+			throw new IllegalArgumentException("Time quantum must be positive");
+		this.tq = tq;
+		this.eventLog = eventLog;
+	}
+
+	/**
+	 * Deliver completions straight to a listener instead of keeping them
+	 */
+	public void setCompletionListener(CompletionListener listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * Schedule every process of the source, which must be in order of arrival
+	 */
+	public void run(ProcessSource source, CompletionListener listener) {
+		setCompletionListener(listener);
+		while (source.next())
+		{
+			// Everything before this arrival can be decided already
+			long at = source.arrival();
+			if (at > horizon)
+				advanceTo(at - 1);
+			submit(source.pid(), at, source.burst());
+		}
+		finish();
+	}
+
+	public void submit(Process process) {
+		submit(process.getProcessId(), process.getArrivalTime(), process.getBurstTime());
+	}
+
+	/**
+	 * Add a process. Processes must be submitted in order of arrival, and
+	 * before the simulation has been advanced to their arrival time.
+	 */
+	public void submit(int pid, long arrival, long burst) {
+		if (arrival <= horizon)
+			throw new IllegalStateException(String.format("Process %d arrives at %d, but the simulation has been advanced to %d", pid, arrival, horizon));
+		if (arrival < lastArrival)
+			throw new IllegalArgumentException(String.format("Process %d arrives at %d, before the previously submitted process", pid, arrival));
+		lastArrival = arrival;
+		pending.add(admit(pid, arrival, burst));
+	}
+
+	/**
+	 * Make every decision up to and including time. All processes arriving at
+	 * or before it must have been submitted.
+	 */
+	public void advanceTo(long time) {
+		if (time > horizon)
+			horizon = time;
+		while (decide(time) != NOTHING)
+			;
+	}
+
+	/**
+	 * Run the next time slice with the processes submitted so far,
+	 * false when there was nothing to run
+	 */
+	public boolean step() {
+		int result;
+		do
+			result = decide(Long.MAX_VALUE);
+		while (result == IDLED);
+		return result == RAN;
+	}
+
+	/**
+	 * Run until every submitted process has completed
+	 */
+	public void finish() {
+		while (decide(Long.MAX_VALUE) != NOTHING)
+			;
+	}
+
+	private static final int NOTHING = 0, IDLED = 1, RAN = 2;
+
+	/**
+	 * The decision at time ct, if it is not later than limit
+	 */
+	private int decide(long limit) {
+		if (ct > limit)
+			return NOTHING;
+		if (ct > horizon)
+			horizon = ct;
+
+		// Add arrivals to the run queue
+		while (!pending.isEmpty() && arrivals[pending.peek()] <= ct)
+			queue.add(pending.poll());
+
+		// Add previous process if not complete
+		if (p >= 0)
+		{
+			queue.add(p);
+			p = -1;
+		}
+
+		if (queue.isEmpty())
+		{
+			if (pending.isEmpty())
+				return NOTHING;
+
+			// Idle, jump straight to the next arrival
+			long at = arrivals[pending.peek()];
+			if (eventLog != null)
+				eventLog.addIdle(ct, at);
+			idleTime += at - ct;
+			ct = at;
+			return IDLED;
+		}
+
+		int s = queue.poll();
+		if (s != last && last != -1)
+			contextSwitches++;
+		last = s;
+
+		long bt = remaining[s];
+		long act = bt > tq ? tq : bt;
+		ct += act;
+		remaining[s] = bt - act;
+
+		if (eventLog != null)
+			eventLog.add(pids[s], ct - act, ct);
+
+		if (remaining[s] > 0)
+			p = s;
+		else
+		{
+			complete(s);
+			last = -2; // its slot may be reused by a different process
+		}
+		return RAN;
+	}
+
+	private void complete(int s) {
+		completed++;
+		if (listener != null)
+			listener.completed(pids[s], arrivals[s], bursts[s], ct);
+		else
+		{
+			if (doneCount * 4 == done.length)
+				done = Arrays.copyOf(done, done.length * 2);
+			int i = doneCount++ * 4;
+			done[i] = pids[s];
+			done[i + 1] = arrivals[s];
+			done[i + 2] = bursts[s];
+			done[i + 3] = ct;
+		}
+		freeSlots.add(s);
+	}
+
+	/**
+	 * Hand every completion kept since the last drain to a listener,
+	 * returns how many there were
+	 */
+	public int drainCompleted(CompletionListener listener) {
+		int n = doneCount;
+		for (int i = 0; i < n * 4; i += 4)
+			listener.completed((int) done[i], done[i + 1], done[i + 2], done[i + 3]);
+		doneCount = 0;
+		if (done.length > 1024)
+			done = new long[64];
+		return n;
+	}
+
+	private int admit(int pid, long arrival, long burst) {
+		int slot;
+		if (!freeSlots.isEmpty())
+			slot = freeSlots.poll();
+		else
+		{
+			if (slots == pids.length)
+			{
+				int capacity = slots * 2;
+				pids = Arrays.copyOf(pids, capacity);
+				arrivals = Arrays.copyOf(arrivals, capacity);
+				bursts = Arrays.copyOf(bursts, capacity);
+				remaining = Arrays.copyOf(remaining, capacity);
+			}
+			slot = slots++;
+		}
+		pids[slot] = pid;
+		arrivals[slot] = arrival;
+		bursts[slot] = burst;
+		remaining[slot] = burst;
+		return slot;
+	}
+
+	/**
+	 * Time of the next decision, the end of the running slice when busy
+	 */
+	public long getTime() {
+		return ct;
+	}
+
+	/**
+	 * Submitted processes that have not completed yet
+	 */
+	public int getActive() {
+		return slots - freeSlots.size();
+	}
+
+	public long getCompleted() {
+		return completed;
+	}
+
+	/**
+	 * Number of times the CPU switched from one process to another
+	 */
+	public long getContextSwitches() {
+		return contextSwitches;
+	}
+
+	public long getIdleTime() {
+		return idleTime;
+	}
+
+	/**
+	 * Number of slots ever allocated, the peak number of active processes
+	 */
+	public int getPeakActive() {
+		return slots;
+	}
+
+	public EventLog getEventLog() {
+		return eventLog;
+	}
+}
@@ -0,0 +1,86 @@
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+
+public class StreamRRTest {
+
+	@org.junit.Test
+	public void test1() {
+		// Fed from a live clock, the results are the same as RR on the whole list
+		Random random = new Random(8);
+		for (int run = 0; run < 30; run++) {
+			ArrayList<Process> expected = new ArrayList<Process>();
+			int at = 0;
+			for (int i = 0; i < 300; i++) {
+				at += random.nextInt(12);
+				expected.add(new Process(i + 1, at, 1 + random.nextInt(20)));
+			}
+			int tq = 1 + random.nextInt(6);
+			ArrayList<Process> input = new ArrayList<Process>();
+			for (Process p : expected)
+				input.add(new Process(p.getProcessId(), p.getArrivalTime(), p.getBurstTime()));
+			new RR(expected, tq).run();
+
+			final long[] ct = new long[301];
+			StreamRR scheduler = new StreamRR(tq);
+			scheduler.setCompletionListener((pid, arrival, burst, completed) -> ct[pid] = completed);
+
+			int next = 0;
+			for (long clock = 0; next < input.size(); clock += 1 + random.nextInt(30)) {
+				while (next < input.size() && input.get(next).getArrivalTime() <= clock)
+					scheduler.submit(input.get(next++));
+				scheduler.advanceTo(clock);
+			}
+			scheduler.finish();
+
+			assertEquals(0, scheduler.getActive());
+			for (Process p : expected)
+				assertEquals(p.getCompletedTime(), ct[p.getProcessId()]);
+		}
+	}
+
+	@org.junit.Test
+	public void test2() {
+		// Same as RRTest.test6, one slice at a time, results drained afterwards
+		StreamRR scheduler = new StreamRR(2);
+		scheduler.submit(1, 0, 3);
+		scheduler.submit(2, 3, 3);
+		scheduler.submit(3, 4, 2);
+
+		int slices = 0;
+		while (scheduler.step())
+			slices++;
+		assertEquals(5, slices);
+		assertEquals(8, scheduler.getTime());
+
+		final long[] ct = new long[4];
+		final long[] wt = new long[4];
+		assertEquals(3, scheduler.drainCompleted((pid, arrival, burst, completed) -> {
+			ct[pid] = completed;
+			wt[pid] = completed - arrival - burst;
+		}));
+		assertArrayEquals(new long[]{0, 3, 8, 7}, ct);
+		assertArrayEquals(new long[]{0, 0, 2, 1}, wt);
+		assertEquals(0, scheduler.drainCompleted((pid, arrival, burst, completed) -> fail("Already drained")));
+	}
+
+	@org.junit.Test
+	public void test3() {
+		// Submitting into the simulated past is rejected
+		StreamRR scheduler = new StreamRR(2);
+		scheduler.submit(1, 0, 5);
+		scheduler.advanceTo(10);
+		try {
+			scheduler.submit(2, 10, 1);
+			fail("Expected a late submission to be rejected");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+		scheduler.submit(2, 11, 1);
+		scheduler.finish();
+		assertEquals(2, scheduler.getCompleted());
+		assertEquals(6, scheduler.getIdleTime());
+	}
+}
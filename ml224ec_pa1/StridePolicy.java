@@ -0,0 +1,105 @@
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Stride scheduling, the deterministic counterpart of {@link LotteryPolicy}.
+ * Every process has a stride inversely proportional to its weight and a pass
+ * value that advances by its stride for each unit of time it runs. The ready
+ * process with the lowest pass runs next for up to one quantum, ties going to
+ * the earlier arrival, so no seed is needed.
+ *
+ * A global pass advances as if the CPU were shared by weight among the ready
+ * processes. Arrivals start one quantum's worth of stride past it rather
+ * than at zero, so they cannot monopolise the CPU.
+ */
+public class StridePolicy implements SchedulingPolicy {
+
+	// Stride of weight 1 per unit of time, large enough to keep high weights apart
+	private static final long STRIDE1 = 1L << 24;
+
+	private final int tq;
+	private final IntUnaryOperator weights;
+
+	private ProcessTable table;
+	private IndexedHeap heap;
+	private long[] pass;
+	private int[] weight;
+	private long globalPass;
+	private long readyTickets; // weight of the processes in the heap
+
+	/**
+	 * Weights from the nice values in the priority column
+	 */
+	public StridePolicy(int tq) {
+		this(tq, null);
+	}
+
+	/**
+	 * Weights from process id to a positive number of tickets
+	 */
+	public StridePolicy(int tq, IntUnaryOperator weights) {
+		if (tq < 1)
+			throw new IllegalArgumentException("Time quantum must be positive");
+		this.tq = tq;
+		this.weights = weights;
+	}
+
+	@Override
+	public void reset(ProcessTable table) {
+		this.table = table;
+		heap = new IndexedHeap(table.size());
+		pass = new long[table.size()];
+		weight = new int[table.size()];
+		globalPass = 0;
+		readyTickets = 0;
+	}
+
+	@Override
+	public void arrive(int row, long time) {
+		int w = weights != null ? weights.applyAsInt(table.getProcessId(row)) : CFSPolicy.niceToWeight(table.getPriority(row));
+		if (w < 1)
+			throw new IllegalArgumentException("Weight of P" + table.getProcessId(row) + " must be positive");
+		weight[row] = w;
+		pass[row] = globalPass + tq * (STRIDE1 / w);
+		requeue(row, time);
+	}
+
+	@Override
+	public void requeue(int row, long time) {
+		heap.add(row, pass[row]);
+		readyTickets += weight[row];
+	}
+
+	@Override
+	public int select(long time) {
+		int row = heap.poll();
+		if (row >= 0)
+			readyTickets -= weight[row];
+		return row;
+	}
+
+	@Override
+	public long quantum(int row) {
+		return tq;
+	}
+
+	@Override
+	public void ran(int row, long time, long duration) {
+		pass[row] += duration * (STRIDE1 / weight[row]);
+		globalPass += duration * STRIDE1 / (readyTickets + weight[row]);
+	}
+
+	@Override
+	public boolean preemptsOnArrival() {
+		return false;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return heap.isEmpty();
+	}
+
+	@Override
+	public String getName() {
+		return "Stride";
+	}
+}
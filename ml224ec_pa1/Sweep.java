@@ -0,0 +1,99 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Runs round robin over every combination of workloads and time quanta in
+ * parallel on a ForkJoinPool. Workloads are immutable and each run works on
+ * its own table, so runs share nothing and scale with the number of cores.
+ */
+public class Sweep {
+
+	private Sweep() {
+	}
+
+	public static List<SweepResult> run(Workload workload, int[] tqs) {
+		return run(Collections.singletonList(workload), tqs, ForkJoinPool.commonPool());
+	}
+
+	public static List<SweepResult> run(List<Workload> workloads, int[] tqs) {
+		return run(workloads, tqs, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Distributions of all runs of a sweep merged together
+	 */
+	public static RunStatistics merge(List<SweepResult> results) {
+		RunStatistics merged = new RunStatistics();
+		for (SweepResult result : results)
+			result.mergeInto(merged);
+		return merged;
+	}
+
+	/**
+	 * Results are ordered by workload, then by time quantum in the given order
+	 */
+	public static List<SweepResult> run(List<Workload> workloads, int[] tqs, ForkJoinPool pool) {
+		for (int tq : tqs)
+			if (tq < 1)
+				throw new IllegalArgumentException("Time quantum must be positive");
+
+		Workload[] jobsWorkload = workloads.toArray(new Workload[0]);
+		int[] jobsTq = tqs.clone();
+		SweepResult[] results = new SweepResult[jobsWorkload.length * jobsTq.length];
+
+		pool.invoke(new Jobs(jobsWorkload, jobsTq, results, 0, results.length));
+
+		return Collections.unmodifiableList(new ArrayList<SweepResult>(Arrays.asList(results)));
+	}
+
+	/**
+	 * Run a single combination on the calling thread
+	 */
+	public static SweepResult run(Workload workload, int tq) {
+		ProcessTable table = workload.toTable();
+		TableRR engine = new TableRR(table, tq);
+		RunStatistics statistics = new RunStatistics();
+		engine.setStatistics(statistics);
+		engine.run();
+		return SweepResult.of(workload.getName(), tq, table, engine.getContextSwitches(), engine.getIdleTime(), statistics);
+	}
+
+	/**
+	 * Splits the range of jobs in halves until a single run is left
+	 */
+	private static class Jobs extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Workload[] workloads;
+		private final int[] tqs;
+		private final SweepResult[] results;
+		private final int from, to;
+
+		Jobs(Workload[] workloads, int[] tqs, SweepResult[] results, int from, int to) {
+			this.workloads = workloads;
+			this.tqs = tqs;
+			this.results = results;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from == 1)
+			{
+				results[from] = run(workloads[from / tqs.length], tqs[from % tqs.length]);
+				return;
+			}
+			if (to <= from)
+				return;
+			int mid = (from + to) >>> 1;
+			invokeAll(new Jobs(workloads, tqs, results, from, mid),
+					new Jobs(workloads, tqs, results, mid, to));
+		}
+	}
+}
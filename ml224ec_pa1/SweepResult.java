@@ -0,0 +1,158 @@
+/**
+ * Immutable summary of one scheduler run of a workload with a time quantum
+ */
+public final class SweepResult {
+
+	private final String workload;
+	private final int tq;
+	private final int processes;
+	private final double averageWaitingTime;
+	private final long maxWaitingTime;
+	private final double averageTurnaroundTime;
+	private final long maxTurnaroundTime;
+	private final long contextSwitches;
+	private final long idleTime;
+	private final long makespan;
+
+	// Private copy, only ever read
+	private final RunStatistics statistics;
+
+	public SweepResult(String workload, int tq, int processes,
+			double averageWaitingTime, long maxWaitingTime,
+			double averageTurnaroundTime, long maxTurnaroundTime,
+			long contextSwitches, long idleTime, long makespan, RunStatistics statistics) {
+		this.workload = workload;
+		this.tq = tq;
+		this.processes = processes;
+		this.averageWaitingTime = averageWaitingTime;
+		this.maxWaitingTime = maxWaitingTime;
+		this.averageTurnaroundTime = averageTurnaroundTime;
+		this.maxTurnaroundTime = maxTurnaroundTime;
+		this.contextSwitches = contextSwitches;
+		this.idleTime = idleTime;
+		this.makespan = makespan;
+		this.statistics = new RunStatistics(statistics);
+	}
+
+	// Same run under another name, shares the statistics as neither copy changes them
+	private SweepResult(SweepResult other, String workload) {
+		this.workload = workload;
+		this.tq = other.tq;
+		this.processes = other.processes;
+		this.averageWaitingTime = other.averageWaitingTime;
+		this.maxWaitingTime = other.maxWaitingTime;
+		this.averageTurnaroundTime = other.averageTurnaroundTime;
+		this.maxTurnaroundTime = other.maxTurnaroundTime;
+		this.contextSwitches = other.contextSwitches;
+		this.idleTime = other.idleTime;
+		this.makespan = other.makespan;
+		this.statistics = other.statistics;
+	}
+
+	/**
+	 * Summarise a completed table
+	 */
+	public static SweepResult of(String workload, int tq, ProcessTable table, long contextSwitches, long idleTime) {
+		RunStatistics statistics = new RunStatistics();
+		for (int i = 0; i < table.size(); i++)
+			statistics.completed(table.getProcessId(i), table.getArrivalTime(i), table.getBurstTime(i), table.getCompletedTime(i));
+		return of(workload, tq, table, contextSwitches, idleTime, statistics);
+	}
+
+	/**
+	 * Summarise a completed table whose distributions were recorded during the run
+	 */
+	public static SweepResult of(String workload, int tq, ProcessTable table, long contextSwitches, long idleTime, RunStatistics statistics) {
+		int n = table.size();
+		long sumWT = 0, maxWT = 0, sumTAT = 0, maxTAT = 0, makespan = 0;
+		for (int i = 0; i < n; i++)
+		{
+			long wt = table.getWaitingTime(i);
+			long tat = table.getTurnaroundTime(i);
+			sumWT += wt;
+			sumTAT += tat;
+			maxWT = Math.max(maxWT, wt);
+			maxTAT = Math.max(maxTAT, tat);
+			makespan = Math.max(makespan, table.getCompletedTime(i));
+		}
+		return new SweepResult(workload, tq, n,
+				n > 0 ? (double) sumWT / n : 0, maxWT,
+				n > 0 ? (double) sumTAT / n : 0, maxTAT,
+				contextSwitches, idleTime, makespan, statistics);
+	}
+
+	/**
+	 * This result under another workload name
+	 */
+	public SweepResult withWorkload(String workload) {
+		return workload.equals(this.workload) ? this : new SweepResult(this, workload);
+	}
+
+	public String getWorkload() {
+		return workload;
+	}
+
+	public int getTimeQuantum() {
+		return tq;
+	}
+
+	public int getProcesses() {
+		return processes;
+	}
+
+	public double getAverageWaitingTime() {
+		return averageWaitingTime;
+	}
+
+	public long getMaxWaitingTime() {
+		return maxWaitingTime;
+	}
+
+	public double getAverageTurnaroundTime() {
+		return averageTurnaroundTime;
+	}
+
+	public long getMaxTurnaroundTime() {
+		return maxTurnaroundTime;
+	}
+
+	public long getContextSwitches() {
+		return contextSwitches;
+	}
+
+	public long getIdleTime() {
+		return idleTime;
+	}
+
+	public long getMakespan() {
+		return makespan;
+	}
+
+	/**
+	 * Waiting time at the given percentile (0 to 100), within 1%
+	 */
+	public long getWaitingTimePercentile(double percentile) {
+		return statistics.getWaitingTimes().getPercentile(percentile);
+	}
+
+	/**
+	 * Turnaround time at the given percentile (0 to 100), within 1%
+	 */
+	public long getTurnaroundTimePercentile(double percentile) {
+		return statistics.getTurnaroundTimes().getPercentile(percentile);
+	}
+
+	/**
+	 * Add the distributions of this run to statistics of several runs
+	 */
+	public void mergeInto(RunStatistics merged) {
+		merged.merge(statistics);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s\t| %d\t| %.2f\t| %d\t| %.2f\t| %d\t| %d\t| %d",
+				workload, tq, averageWaitingTime, maxWaitingTime,
+				averageTurnaroundTime, maxTurnaroundTime, contextSwitches, idleTime);
+	}
+}
@@ -0,0 +1,64 @@
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+
+public class SweepTest {
+
+	@org.junit.Test
+	public void test1() {
+		ArrayList<Process> listOfProcesses = new ArrayList<Process>();
+		listOfProcesses.add(new Process(1, 0, 6));
+		listOfProcesses.add(new Process(2, 1, 4));
+		listOfProcesses.add(new Process(3, 2, 7));
+		listOfProcesses.add(new Process(4, 4, 3));
+
+		Workload workload = Workload.of("test", listOfProcesses);
+		List<SweepResult> results = Sweep.run(workload, new int[]{2, 3});
+
+		// Same as RRTest.test2 and RRTest.test3
+		assertEquals(2, results.size());
+		assertEquals(2, results.get(0).getTimeQuantum());
+		assertEquals((10 + 7 + 11 + 10) / 4.0, results.get(0).getAverageWaitingTime(), 1e-9);
+		assertEquals(11, results.get(0).getMaxWaitingTime());
+		assertEquals(18, results.get(0).getMaxTurnaroundTime());
+		assertEquals(3, results.get(1).getTimeQuantum());
+		assertEquals((6 + 11 + 11 + 8) / 4.0, results.get(1).getAverageWaitingTime(), 1e-9);
+		assertEquals(20, results.get(1).getMakespan());
+
+		// The input list was not touched
+		assertEquals(0, listOfProcesses.get(0).getCompletedTime());
+	}
+
+	@org.junit.Test
+	public void test2() {
+		// Parallel results are the same as sequential ones, in grid order
+		Random random = new Random(5);
+		List<Workload> workloads = new ArrayList<Workload>();
+		for (int w = 0; w < 4; w++) {
+			ProcessTable table = new ProcessTable();
+			for (int i = 0; i < 500; i++)
+				table.add(i + 1, random.nextInt(5000), 1 + random.nextInt(30));
+			workloads.add(Workload.of("w" + w, table));
+		}
+		int[] tqs = new int[]{1, 2, 3, 5, 8, 13};
+
+		List<SweepResult> results = Sweep.run(workloads, tqs, new ForkJoinPool(4));
+
+		assertEquals(workloads.size() * tqs.length, results.size());
+		for (int w = 0; w < workloads.size(); w++)
+			for (int t = 0; t < tqs.length; t++) {
+				SweepResult expected = Sweep.run(workloads.get(w), tqs[t]);
+				SweepResult actual = results.get(w * tqs.length + t);
+				assertEquals("w" + w, actual.getWorkload());
+				assertEquals(tqs[t], actual.getTimeQuantum());
+				assertEquals(expected.getAverageWaitingTime(), actual.getAverageWaitingTime(), 0);
+				assertEquals(expected.getMaxTurnaroundTime(), actual.getMaxTurnaroundTime());
+				assertEquals(expected.getContextSwitches(), actual.getContextSwitches());
+				assertEquals(expected.getIdleTime(), actual.getIdleTime());
+			}
+	}
+}
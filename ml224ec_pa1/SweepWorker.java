@@ -0,0 +1,185 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Worker JVM of a {@link DistributedSweep}. It connects to the coordinator
+ * and runs the jobs it is sent until the connection closes:
+ *
+ * java -cp ml224ec_pa1.jar SweepWorker host port
+ *
+ * Messages are a type byte followed by its fields, big endian, varints where
+ * noted:
+ *
+ * WORKLOAD: int id, UTF name, varint size, then per process zigzag pid delta,
+ *           varint arrival delta and varint burst
+ * JOB:      long job, int workload id, int tq
+ * RESULT:   long job, long context switches, long idle time, varint size,
+ *           then the turnaround time of every process as a varint
+ * HEARTBEAT: no fields, sent every HEARTBEAT_MILLIS while a job runs
+ *
+ * Workloads are sent once per worker and kept for the jobs that follow, up
+ * to WORKLOADS of them. The coordinator keeps the same cache() of the ids it
+ * sent each worker, so it sends a workload again once the worker dropped it.
+ */
+public class SweepWorker {
+
+	static final int WORKLOAD = 1;
+	static final int JOB = 2;
+	static final int RESULT = 3;
+	static final int HEARTBEAT = 4;
+
+	// A worker that sends nothing for a few of these is taken for stuck
+	static final int HEARTBEAT_MILLIS = 1000;
+
+	// Workloads kept at once, the least recently used one is dropped
+	static final int WORKLOADS = 64;
+
+	private SweepWorker() {
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2)
+		{
+			System.err.println("Usage: SweepWorker host port");
+			System.exit(2);
+		}
+		try (Socket socket = new Socket(args[0], Integer.parseInt(args[1]))) {
+			serve(socket);
+		}
+	}
+
+	/**
+	 * Run jobs sent over socket until the coordinator closes it
+	 */
+	static void serve(Socket socket) throws IOException {
+		socket.setTcpNoDelay(true);
+		DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 1 << 16));
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 16));
+		Map<Integer, Workload> workloads = cache();
+
+		// Tells the coordinator the worker is alive while a long job runs
+		AtomicBoolean busy = new AtomicBoolean();
+		Thread heartbeat = new Thread(() -> {
+			try {
+				while (true)
+				{
+					Thread.sleep(HEARTBEAT_MILLIS);
+					synchronized (out)
+					{
+						if (busy.get())
+						{
+							out.writeByte(HEARTBEAT);
+							out.flush();
+						}
+					}
+				}
+			} catch (InterruptedException | IOException e) {
+				// Done, or the connection is gone
+			}
+		}, "sweep-heartbeat");
+		heartbeat.setDaemon(true);
+		heartbeat.start();
+		try {
+			run(in, out, workloads, busy);
+		} finally {
+			heartbeat.interrupt();
+		}
+	}
+
+	private static void run(DataInputStream in, DataOutputStream out, Map<Integer, Workload> workloads, AtomicBoolean busy) throws IOException {
+		while (true)
+		{
+			int type = in.read();
+			if (type < 0)
+				return;
+			switch (type)
+			{
+			case WORKLOAD:
+				int id = in.readInt();
+				workloads.put(id, readWorkload(in));
+				break;
+			case JOB:
+				long job = in.readLong();
+				Workload workload = workloads.get(in.readInt());
+				int tq = in.readInt();
+				if (workload == null)
+					throw new IOException("Job " + job + " for a workload that was not sent");
+
+				busy.set(true);
+				ProcessTable table = workload.toTable();
+				TableRR engine = new TableRR(table, tq);
+				engine.setRoundSkipping(true);
+				engine.run();
+
+				synchronized (out)
+				{
+					busy.set(false);
+					out.writeByte(RESULT);
+					out.writeLong(job);
+					out.writeLong(engine.getContextSwitches());
+					out.writeLong(engine.getIdleTime());
+					Varint.writeUnsigned(out, table.size());
+					for (int i = 0; i < table.size(); i++)
+						Varint.writeUnsigned(out, table.getTurnaroundTime(i));
+					out.flush();
+				}
+				break;
+			default:
+				throw new IOException("Unknown message type " + type);
+			}
+		}
+	}
+
+	/**
+	 * Workload id -> value, dropping the least recently used past WORKLOADS.
+	 * A put() for each WORKLOAD and a get() for each JOB keep the caches of
+	 * the worker and the coordinator in step.
+	 */
+	static <V> Map<Integer, V> cache() {
+		return new LinkedHashMap<Integer, V>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Integer, V> eldest) {
+				return size() > WORKLOADS;
+			}
+		};
+	}
+
+	static void writeWorkload(DataOutput out, Workload workload) throws IOException {
+		out.writeUTF(workload.getName());
+		Varint.writeUnsigned(out, workload.size());
+		long pid = 0, arrival = 0;
+		for (int i = 0; i < workload.size(); i++)
+		{
+			Varint.writeSigned(out, workload.getProcessId(i) - pid);
+			Varint.writeUnsigned(out, workload.getArrivalTime(i) - arrival);
+			Varint.writeUnsigned(out, workload.getBurstTime(i));
+			pid = workload.getProcessId(i);
+			arrival = workload.getArrivalTime(i);
+		}
+	}
+
+	static Workload readWorkload(DataInput in) throws IOException {
+		String name = in.readUTF();
+		int size = Math.toIntExact(Varint.readUnsigned(in));
+		ProcessTable table = new ProcessTable(size);
+		long pid = 0, arrival = 0;
+		for (int i = 0; i < size; i++)
+		{
+			pid += Varint.readSigned(in);
+			arrival += Varint.readUnsigned(in);
+			table.add((int) pid, arrival, Varint.readUnsigned(in));
+		}
+		return Workload.of(name, table);
+	}
+}
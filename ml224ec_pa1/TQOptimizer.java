@@ -0,0 +1,272 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Searches the time quantum that minimises an {@link Objective} for a
+ * workload, coarse to fine: a grid of quanta spread geometrically over the
+ * range first, then finer grids between the neighbours of the best one,
+ * until the best quantum is surrounded by quanta that were all tried.
+ *
+ * The candidates of a grid run in parallel on a ForkJoinPool. They share the
+ * best value found so far, and a run stops as soon as the lower bound of its
+ * objective exceeds it, so hopeless quanta cost only part of a run.
+ *
+ * The search is exact when the objective is unimodal in the quantum, or the
+ * range fits in a single grid. Otherwise it finds a local minimum among
+ * those of the coarse grid.
+ */
+public class TQOptimizer {
+
+	// Candidates per grid
+	static final int GRID = 16;
+
+	private TQOptimizer() {
+	}
+
+	public static Result optimize(Workload workload, Objective objective, int minTq, int maxTq) {
+		return optimize(workload, objective, minTq, maxTq, ForkJoinPool.commonPool());
+	}
+
+	public static Result optimize(Workload workload, Objective objective, int minTq, int maxTq, ForkJoinPool pool) {
+		if (minTq < 1 || maxTq < minTq)
+			throw new IllegalArgumentException("Time quanta must be positive, with minTq <= maxTq");
+
+		TreeMap<Integer, Point> evaluated = new TreeMap<Integer, Point>();
+		AtomicLong best = new AtomicLong(Double.doubleToLongBits(Double.POSITIVE_INFINITY));
+		Objective.Arrivals arrivals = new Objective.Arrivals(workload);
+
+		int[] grid = geometricGrid(minTq, maxTq);
+		while (grid.length > 0)
+		{
+			Point[] points = new Point[grid.length];
+			pool.invoke(new Candidates(workload, arrivals, objective, grid, points, best, 0, grid.length));
+			for (Point point : points)
+				evaluated.put(point.getTimeQuantum(), point);
+
+			// Refine between the tried neighbours of the best quantum
+			int bestTq = bestOf(evaluated).getTimeQuantum();
+			Integer lower = evaluated.lowerKey(bestTq);
+			Integer higher = evaluated.higherKey(bestTq);
+			grid = linearGrid(lower != null ? lower + 1 : minTq, higher != null ? higher - 1 : maxTq, evaluated);
+		}
+
+		return new Result(objective, bestOf(evaluated), new ArrayList<Point>(evaluated.values()));
+	}
+
+	/**
+	 * Lowest completed value, the smallest quantum among equal ones
+	 */
+	private static Point bestOf(TreeMap<Integer, Point> evaluated) {
+		Point best = null;
+		for (Point point : evaluated.values())
+			if (point.isComplete() && (best == null || point.getValue() < best.getValue()))
+				best = point;
+		return best;
+	}
+
+	private static int[] geometricGrid(int from, int to) {
+		if (to - from < GRID)
+			return linearGrid(from, to, Collections.<Integer, Point>emptyMap());
+		ArrayList<Integer> tqs = new ArrayList<Integer>(GRID);
+		double ratio = Math.pow((double) to / from, 1.0 / (GRID - 1));
+		double tq = from;
+		for (int i = 0; i < GRID; i++, tq *= ratio)
+		{
+			int rounded = i == GRID - 1 ? to : (int) Math.round(tq);
+			if (tqs.isEmpty() || rounded > tqs.get(tqs.size() - 1))
+				tqs.add(rounded);
+		}
+		return toArray(tqs);
+	}
+
+	/**
+	 * Up to GRID quanta spread evenly over [from, to], leaving out those already tried
+	 */
+	private static int[] linearGrid(int from, int to, Map<Integer, Point> evaluated) {
+		ArrayList<Integer> tqs = new ArrayList<Integer>(GRID);
+		if (to < from)
+			return new int[0];
+		double step = Math.max(1, (double) (to - from) / (GRID - 1));
+		for (double tq = from; Math.round(tq) <= to; tq += step)
+		{
+			int rounded = (int) Math.round(tq);
+			if (!evaluated.containsKey(rounded) && (tqs.isEmpty() || rounded > tqs.get(tqs.size() - 1)))
+				tqs.add(rounded);
+		}
+		return toArray(tqs);
+	}
+
+	private static int[] toArray(List<Integer> list) {
+		int[] array = new int[list.size()];
+		for (int i = 0; i < array.length; i++)
+			array[i] = list.get(i);
+		return array;
+	}
+
+	/**
+	 * Run one quantum on the calling thread, giving up once it cannot beat best
+	 */
+	static Point evaluate(Workload workload, Objective.Arrivals arrivals, Objective objective, int tq, AtomicLong best) {
+		ProcessTable table = workload.toTable();
+		TableRR engine = new TableRR(table, tq);
+		engine.setRoundSkipping(true);
+		Objective.Tracker tracker = objective.tracker(table.size(), arrivals);
+		double[] bound = new double[1];
+		engine.setCompletionListener((pid, arrivalTime, burstTime, completedTime) -> {
+			tracker.completed(pid, arrivalTime, burstTime, completedTime);
+			bound[0] = tracker.bound(completedTime, engine.getIdleTime(), engine.getContextSwitches());
+			if (bound[0] > Double.longBitsToDouble(best.get()))
+				engine.stop();
+		});
+		engine.run();
+
+		if (engine.isStopped())
+			return new Point(tq, bound[0], false);
+
+		long makespan = 0;
+		for (int i = 0; i < table.size(); i++)
+			makespan = Math.max(makespan, table.getCompletedTime(i));
+		double value = tracker.bound(makespan, engine.getIdleTime(), engine.getContextSwitches());
+
+		// Lower the shared best unless another run got lower already
+		long current;
+		while (value < Double.longBitsToDouble(current = best.get()))
+			if (best.compareAndSet(current, Double.doubleToLongBits(value)))
+				break;
+		return new Point(tq, value, true);
+	}
+
+	/**
+	 * Splits the candidates of a grid in halves until a single run is left
+	 */
+	private static class Candidates extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Workload workload;
+		private final Objective.Arrivals arrivals;
+		private final Objective objective;
+		private final int[] tqs;
+		private final Point[] points;
+		private final AtomicLong best;
+		private final int from, to;
+
+		Candidates(Workload workload, Objective.Arrivals arrivals, Objective objective, int[] tqs, Point[] points, AtomicLong best, int from, int to) {
+			this.workload = workload;
+			this.arrivals = arrivals;
+			this.objective = objective;
+			this.tqs = tqs;
+			this.points = points;
+			this.best = best;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from == 1)
+			{
+				points[from] = evaluate(workload, arrivals, objective, tqs[from], best);
+				return;
+			}
+			if (to <= from)
+				return;
+			int mid = (from + to) >>> 1;
+			invokeAll(new Candidates(workload, arrivals, objective, tqs, points, best, from, mid),
+					new Candidates(workload, arrivals, objective, tqs, points, best, mid, to));
+		}
+	}
+
+	/**
+	 * One quantum that was tried
+	 */
+	public static final class Point {
+		private final int tq;
+		private final double value;
+		private final boolean complete;
+
+		Point(int tq, double value, boolean complete) {
+			this.tq = tq;
+			this.value = value;
+			this.complete = complete;
+		}
+
+		public int getTimeQuantum() {
+			return tq;
+		}
+
+		/**
+		 * The objective, or for an abandoned run a lower bound of it that
+		 * already exceeded the best value
+		 */
+		public double getValue() {
+			return value;
+		}
+
+		/**
+		 * False when the run was abandoned early
+		 */
+		public boolean isComplete() {
+			return complete;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%d\t| %s%.2f", tq, complete ? "" : ">", value);
+		}
+	}
+
+	/**
+	 * Best quantum and every point evaluated on the way, ordered by quantum
+	 */
+	public static final class Result {
+		private final Objective objective;
+		private final Point best;
+		private final List<Point> curve;
+
+		Result(Objective objective, Point best, List<Point> curve) {
+			this.objective = objective;
+			this.best = best;
+			this.curve = Collections.unmodifiableList(curve);
+		}
+
+		public int getTimeQuantum() {
+			return best.getTimeQuantum();
+		}
+
+		public double getValue() {
+			return best.getValue();
+		}
+
+		public List<Point> getCurve() {
+			return curve;
+		}
+
+		/**
+		 * Number of runs abandoned before completing
+		 */
+		public int getAbandoned() {
+			int abandoned = 0;
+			for (Point point : curve)
+				if (!point.isComplete())
+					abandoned++;
+			return abandoned;
+		}
+
+		@Override
+		public String toString() {
+			StringBuilder sb = new StringBuilder();
+			sb.append(String.format("Best TQ %d, %s = %.2f\n", getTimeQuantum(), objective, getValue()));
+			sb.append("TQ\t| ").append(objective).append('\n');
+			for (Point point : curve)
+				sb.append(point).append('\n');
+			return sb.toString();
+		}
+	}
+}
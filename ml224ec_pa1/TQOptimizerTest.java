@@ -0,0 +1,107 @@
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+
+public class TQOptimizerTest {
+
+	private static Workload workload(long seed) {
+		return Workload.of("bursty", WorkloadGenerator.generate(WorkloadGenerator.Kind.BURSTY, 2000, seed));
+	}
+
+	private static double evaluate(Workload workload, Objective objective, int tq) {
+		ProcessTable table = workload.toTable();
+		TableRR engine = new TableRR(table, tq);
+		engine.run();
+		return objective.evaluate(table, engine.getContextSwitches());
+	}
+
+	@org.junit.Test
+	public void test1() {
+		// Objectives match values computed from the table
+		ArrayList<Process> listOfProcesses = new ArrayList<Process>();
+		listOfProcesses.add(new Process(1, 0, 6));
+		listOfProcesses.add(new Process(2, 1, 4));
+		listOfProcesses.add(new Process(3, 2, 7));
+		listOfProcesses.add(new Process(4, 4, 3));
+		Workload workload = Workload.of("test", listOfProcesses);
+
+		// Same as RRTest.test2, WT 10, 7, 11, 10 and TAT 16, 11, 18, 13
+		assertEquals(38 / 4.0, evaluate(workload, Objective.meanWaitingTime(), 2), 1e-9);
+		assertEquals(58 / 4.0, evaluate(workload, Objective.meanTurnaroundTime(), 2), 1e-9);
+		assertEquals(18, evaluate(workload, Objective.turnaroundTimePercentile(99), 2), 0);
+		assertEquals(13, evaluate(workload, Objective.turnaroundTimePercentile(50), 2), 0);
+		assertEquals(10, evaluate(workload, Objective.waitingTimePercentile(75), 2), 0);
+		assertEquals(7, evaluate(workload, Objective.waitingTimePercentile(0), 2), 0);
+
+		ProcessTable table = workload.toTable();
+		TableRR engine = new TableRR(table, 2);
+		engine.run();
+		Objective mix = Objective.meanWaitingTime().times(2).plus(Objective.contextSwitches().times(0.5));
+		assertEquals(2 * 38 / 4.0 + 0.5 * engine.getContextSwitches(), mix.evaluate(table, engine.getContextSwitches()), 1e-9);
+	}
+
+	@org.junit.Test
+	public void test2() {
+		// A range that fits in one grid is searched exhaustively
+		Workload workload = workload(3);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (Objective objective : new Objective[]{Objective.meanWaitingTime(), Objective.turnaroundTimePercentile(99),
+					Objective.waitingTimePercentile(90).plus(Objective.contextSwitches().times(2))})
+			{
+				TQOptimizer.Result result = TQOptimizer.optimize(workload, objective, 1, TQOptimizer.GRID, pool);
+				assertEquals(TQOptimizer.GRID, result.getCurve().size());
+
+				double[] values = new double[TQOptimizer.GRID + 1];
+				int best = 1;
+				for (int tq = 1; tq <= TQOptimizer.GRID; tq++)
+				{
+					values[tq] = evaluate(workload, objective, tq);
+					if (values[tq] < values[best])
+						best = tq;
+				}
+				assertEquals(best, result.getTimeQuantum());
+				assertEquals(values[best], result.getValue(), 0);
+
+				// Complete points are exact, abandoned ones are lower bounds above the best
+				for (TQOptimizer.Point point : result.getCurve())
+				{
+					if (point.isComplete())
+						assertEquals(values[point.getTimeQuantum()], point.getValue(), 0);
+					else
+					{
+						assertTrue(point.getValue() <= values[point.getTimeQuantum()]);
+						assertTrue(point.getValue() > result.getValue());
+					}
+				}
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@org.junit.Test
+	public void test3() {
+		// Coarse to fine: the best quantum is a local minimum over tried neighbours
+		Workload workload = workload(8);
+		Objective objective = Objective.meanTurnaroundTime().plus(Objective.contextSwitches().times(0.2));
+		TQOptimizer.Result result = TQOptimizer.optimize(workload, objective, 1, 5000);
+		int tq = result.getTimeQuantum();
+		assertEquals(evaluate(workload, objective, tq), result.getValue(), 0);
+		if (tq > 1)
+			assertTrue(evaluate(workload, objective, tq - 1) >= result.getValue());
+		if (tq < 5000)
+			assertTrue(evaluate(workload, objective, tq + 1) >= result.getValue());
+		assertTrue(result.getCurve().size() < 200);
+
+		int[] tqs = new int[result.getCurve().size()];
+		for (int i = 0; i < tqs.length; i++)
+			tqs[i] = result.getCurve().get(i).getTimeQuantum();
+		int[] sorted = tqs.clone();
+		Arrays.sort(sorted);
+		assertArrayEquals(sorted, tqs);
+	}
+}
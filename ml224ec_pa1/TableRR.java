@@ -0,0 +1,436 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+/**
+ * Round robin engine running directly on a {@link ProcessTable}. Follows the
+ * exact same scheduling rules as {@link RR#run()}, but the run queue is a ring
+ * buffer of row indices so no objects are created while simulating.
+ *
+ * An engine can be reused for any number of runs. Between runs, reset() it,
+ * optionally refill the table through clear() and add(), and run() again.
+ * Once the run queue has grown to the most processes active at once, runs
+ * allocate nothing.
+ */
+public class TableRR {
+
+	// Bump whenever a change alters the results, stored results of older versions are discarded
+	public static final int VERSION = 1;
+
+	private final ProcessTable table;
+	private int tq;
+
+	// Optional Gantt event log, nothing is recorded when null
+	private final EventLog eventLog;
+
+	// Optional distributions of TAT and WT, updated as processes complete
+	private RunStatistics statistics;
+
+	// Optional listener told of every completion, it may stop() the run
+	private CompletionListener listener;
+	private boolean stopped;
+
+	// Optional counters of the loop, nothing is counted when null
+	private Instrumentation instrumentation;
+
+	// Run queue of row indices, grown as needed since it only holds active processes
+	private int[] queue = new int[16];
+	private int head;
+	private int count;
+
+	// Run whole rounds at once when nothing arrives or completes in them
+	private boolean roundSkipping;
+	private int cooldown;    // decisions until the next attempt to skip rounds
+	private int[] roundPids; // scratch for recording round events
+
+	// Optional periodic snapshots of the state below
+	private Checkpointer checkpointer;
+	private long fingerprint;
+
+	private int next;        // rows before next have arrived
+	private int p;           // row whose slice ends at ct, -1 if none
+	private int last;        // row that ran last
+	private long ct;
+
+	private long contextSwitches;
+	private long idleTime;
+
+	public TableRR(ProcessTable table, int tq) {
+		this(table, tq, null);
+	}
+
+	public TableRR(ProcessTable table, int tq, EventLog eventLog) {
+		this.table = table;
+		this.eventLog = eventLog;
+		setTimeQuantum(tq);
+	}
+
+	public void setTimeQuantum(int tq) {
+		if (tq < 1)
+			throw new IllegalArgumentException("Time quantum must be positive");
+		this.tq = tq;
+	}
+
+	public int getTimeQuantum() {
+		return tq;
+	}
+
+	/**
+	 * Forget the previous run: the results in the table, the counters and the
+	 * events. Statistics are kept, so repeated runs pool into them.
+	 */
+	public void reset() {
+		table.reset();
+		if (eventLog != null)
+			eventLog.clear();
+		contextSwitches = 0;
+		idleTime = 0;
+	}
+
+	public ProcessTable getTable() {
+		return table;
+	}
+
+	public EventLog getEventLog() {
+		return eventLog;
+	}
+
+	public void setStatistics(RunStatistics statistics) {
+		this.statistics = statistics;
+	}
+
+	public RunStatistics getStatistics() {
+		return statistics;
+	}
+
+	public void setInstrumentation(Instrumentation instrumentation) {
+		this.instrumentation = instrumentation;
+	}
+
+	public Instrumentation getInstrumentation() {
+		return instrumentation;
+	}
+
+	public void setCompletionListener(CompletionListener listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * Abandon the current run once the completion being reported has been
+	 * handled, meant to be called from the completion listener. The table is
+	 * left partly scheduled, isStopped() tells such a run apart.
+	 */
+	public void stop() {
+		stopped = true;
+	}
+
+	public boolean isStopped() {
+		return stopped;
+	}
+
+	/**
+	 * Take checkpoints while running, see {@link #resume(Path)}
+	 */
+	public void setCheckpointer(Checkpointer checkpointer) {
+		this.checkpointer = checkpointer;
+	}
+
+	/**
+	 * Let the engine skip over whole rounds in which no process arrives or
+	 * completes. The results are exactly the same as running slice by slice,
+	 * but the run time grows with the number of arrivals and completions
+	 * rather than with total burst time / TQ. Skipped rounds are recorded as
+	 * round events in the event log.
+	 */
+	public void setRoundSkipping(boolean roundSkipping) {
+		this.roundSkipping = roundSkipping;
+	}
+
+	public void run() {
+		// Obligatory sorting by time of arrival
+		table.sortByArrival();
+
+		head = 0;
+		count = 0;
+		contextSwitches = 0;
+		idleTime = 0;
+
+		next = 0;
+		p = -1;
+		last = -1;
+		ct = 0;
+		stopped = false;
+		loop();
+	}
+
+	/**
+	 * Continue from a checkpoint written while running the same workload with
+	 * the same time quantum. Every result, context switches and idle time come
+	 * out exactly as if the run had never stopped. Statistics and the completion
+	 * listener are given the processes completed before the checkpoint first.
+	 * The event log only covers what runs after it.
+	 */
+	public void resume(Path checkpoint) throws IOException {
+		table.sortByArrival();
+
+		Checkpointer.State state = Checkpointer.read(checkpoint);
+		if (state.fingerprint != table.fingerprint() || state.rows != table.size())
+			throw new IOException("Checkpoint was taken from a different workload");
+		if (state.tq != tq)
+			throw new IOException(String.format("Checkpoint was taken with TQ = %d, not %d", state.tq, tq));
+
+		table.reset();
+		stopped = false;
+		head = 0;
+		count = 0;
+		for (int i = 0; i < state.queue.length; i++)
+		{
+			enqueue(state.queue[i]);
+			table.setRemainingBurstTime(state.queue[i], state.remaining[i]);
+		}
+		if (state.current >= 0)
+			table.setRemainingBurstTime(state.current, state.remaining[state.queue.length]);
+
+		// Everything else that has arrived is complete
+		int[] active = state.activeRows();
+		for (int row = 0, a = 0, done = 0; row < state.next; row++)
+		{
+			if (a < active.length && active[a] == row)
+			{
+				a++;
+				continue;
+			}
+			table.complete(row, table.getArrivalTime(row) + state.turnaround[done++]);
+			if (statistics != null)
+				statistics.completed(table.getProcessId(row), table.getArrivalTime(row), table.getBurstTime(row), table.getCompletedTime(row));
+			if (listener != null)
+				listener.completed(table.getProcessId(row), table.getArrivalTime(row), table.getBurstTime(row), table.getCompletedTime(row));
+		}
+
+		next = state.next;
+		p = state.current;
+		last = state.last;
+		ct = state.clock;
+		contextSwitches = state.contextSwitches;
+		idleTime = state.idleTime;
+		if (!stopped)
+			loop();
+	}
+
+	private void loop() {
+		int n = table.size();
+		Instrumentation in = instrumentation;
+		if (checkpointer != null)
+			fingerprint = table.fingerprint();
+		cooldown = 0;
+		while (next < n || count > 0 || p >= 0)
+		{
+			if (checkpointer != null && checkpointer.isDue())
+				checkpointer.write(snapshot(), table);
+			if (in != null)
+				in.begin();
+			int first = next;
+
+			// Add arrivals to the run queue
+			while (next < n && ct >= table.getArrivalTime(next))
+				enqueue(next++);
+
+			// Add previous process if not complete
+			if (p >= 0)
+				enqueue(p);
+
+			if (in != null)
+				in.arrived(next - first, count);
+
+			// Idle, jump straight to the next arrival
+			if (count == 0)
+			{
+				p = -1;
+				long at = table.getArrivalTime(next);
+				if (eventLog != null)
+					eventLog.addIdle(ct, at);
+				if (in != null)
+					in.idle(ct, at);
+				idleTime += at - ct;
+				ct = at;
+				continue;
+			}
+
+			if (roundSkipping && --cooldown <= 0 && skipRounds())
+				continue;
+
+			p = dequeue();
+
+			if (p != last && last >= 0)
+				contextSwitches++;
+			last = p;
+
+			long bt = table.getRemainingBurstTime(p);
+			long act = bt > tq ? tq : bt;
+			ct += act;
+
+			if (eventLog != null)
+				eventLog.add(table.getProcessId(p), ct - act, ct);
+			if (in != null)
+				in.dispatched(table.getProcessId(p), ct - act, act, count);
+
+			if (bt - act > 0)
+				table.setRemainingBurstTime(p, bt - act);
+			else
+			{
+				table.complete(p, ct);
+				if (statistics != null)
+					statistics.completed(table.getProcessId(p), table.getArrivalTime(p), table.getBurstTime(p), ct);
+				if (in != null)
+					in.completed(table.getProcessId(p), table.getArrivalTime(p), table.getBurstTime(p), ct);
+				p = -1;
+				if (listener != null)
+				{
+					listener.completed(table.getProcessId(last), table.getArrivalTime(last), table.getBurstTime(last), ct);
+					if (stopped)
+						return;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Run as many whole rounds of the queued processes as possible before
+	 * anything arrives or completes, false when not even one fits. Leaves the
+	 * state exactly as after running them one slice at a time, with the last
+	 * process of the round taken off the queue as the preempted one.
+	 */
+	private boolean skipRounds() {
+		int k = count;
+		// A failed attempt costs O(k), so try again after a round at the earliest
+		cooldown = k;
+
+		// Every decision inside the rounds must come before the next arrival
+		long rounds = Long.MAX_VALUE;
+		if (next < table.size())
+			rounds = ((table.getArrivalTime(next) - ct - 1) / tq + 1) / k;
+
+		// and every process must still have time left after its last slice
+		for (int i = 0, at = head; i < k && rounds > 0; i++)
+		{
+			rounds = Math.min(rounds, (table.getRemainingBurstTime(queue[at]) - 1) / tq);
+			if (++at == queue.length)
+				at = 0;
+		}
+		if (rounds < 1)
+			return false;
+
+		int first = queue[head];
+		if (first != last && last >= 0)
+			contextSwitches++;
+		if (k > 1)
+			contextSwitches += rounds * k - 1;
+
+		long ran = rounds * tq;
+		for (int i = 0, at = head; i < k; i++)
+		{
+			int row = queue[at];
+			table.setRemainingBurstTime(row, table.getRemainingBurstTime(row) - ran);
+			if (eventLog != null)
+			{
+				if (roundPids == null || roundPids.length < k)
+					roundPids = new int[Math.max(k, queue.length)];
+				roundPids[i] = table.getProcessId(row);
+			}
+			if (++at == queue.length)
+				at = 0;
+		}
+		if (eventLog != null)
+			eventLog.addRounds(roundPids, 0, k, ct, tq, rounds);
+
+		// The last process of the round was preempted at the end of it
+		int tail = head + count - 1;
+		if (tail >= queue.length)
+			tail -= queue.length;
+		if (instrumentation != null)
+			instrumentation.rounds(k, rounds, table.getProcessId(first), table.getProcessId(queue[tail]), ct, tq);
+		ct += ran * k;
+
+		p = queue[tail];
+		count--;
+		last = p;
+		return true;
+	}
+
+	/**
+	 * Copy of the active part of the state, completed rows are read from the table when written
+	 */
+	private Checkpointer.State snapshot() {
+		Checkpointer.State state = new Checkpointer.State();
+		state.fingerprint = fingerprint;
+		state.tq = tq;
+		state.rows = table.size();
+		state.next = next;
+		state.current = p;
+		state.last = last;
+		state.clock = ct;
+		state.contextSwitches = contextSwitches;
+		state.idleTime = idleTime;
+		state.queue = new int[count];
+		state.remaining = new long[count + (p >= 0 ? 1 : 0)];
+		for (int i = 0, at = head; i < count; i++)
+		{
+			state.queue[i] = queue[at];
+			state.remaining[i] = table.getRemainingBurstTime(queue[at]);
+			if (++at == queue.length)
+				at = 0;
+		}
+		if (p >= 0)
+			state.remaining[count] = table.getRemainingBurstTime(p);
+		return state;
+	}
+
+	/**
+	 * Number of times the CPU switched from one process to another
+	 */
+	public long getContextSwitches() {
+		return contextSwitches;
+	}
+
+	public long getIdleTime() {
+		return idleTime;
+	}
+
+	private void enqueue(int row) {
+		if (count == queue.length)
+		{
+			int[] grown = new int[queue.length * 2];
+			for (int i = 0; i < count; i++)
+				grown[i] = queue[(head + i) % queue.length];
+			queue = grown;
+			head = 0;
+		}
+		int tail = head + count;
+		if (tail >= queue.length)
+			tail -= queue.length;
+		queue[tail] = row;
+		count++;
+	}
+
+	private int dequeue() {
+		int row = queue[head];
+		if (++head == queue.length)
+			head = 0;
+		count--;
+		return row;
+	}
+
+	/**
+	 * Adapter for the object based API. Sorts the list by arrival just like
+	 * RR.run() does and writes the results back onto the Process objects.
+	 */
+	public static void run(ArrayList<Process> processes, int tq) {
+		processes.sort((p1, p2) -> p1.getArrivalTime() - p2.getArrivalTime());
+
+		ProcessTable table = ProcessTable.of(processes);
+		new TableRR(table, tq).run();
+
+		for (int i = 0; i < processes.size(); i++)
+			table.writeTo(i, processes.get(i));
+	}
+}
@@ -0,0 +1,241 @@
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Random;
+
+import com.sun.management.ThreadMXBean;
+
+
+public class TableRRTest {
+
+	@org.junit.Test
+	public void test1() {
+		ArrayList<Process> listOfProcesses = new ArrayList<Process>();
+
+		listOfProcesses.add(new Process(1, 0, 4));
+		listOfProcesses.add(new Process(2, 2, 3));
+		listOfProcesses.add(new Process(3, 1, 1));
+		listOfProcesses.add(new Process(4, 3, 2));
+		listOfProcesses.add(new Process(5, 4, 5));
+
+		int[] processIds = new int[]{1, 3, 2, 4, 5};
+		int[] processCT  = new int[]{10, 4, 7, 9, 15};
+		int[] processTAT = new int[]{10, 3, 5, 6, 11};
+		int[] processWT  = new int[]{6, 2, 2, 4, 6};
+
+		TableRR.run(listOfProcesses, 3);
+
+		for (int i = 0; i < listOfProcesses.size(); i++) {
+			assertEquals(processIds[i], listOfProcesses.get(i).getProcessId());
+			assertEquals(processCT[i], listOfProcesses.get(i).getCompletedTime());
+			assertEquals(processTAT[i], listOfProcesses.get(i).getTurnaroundTime());
+			assertEquals(processWT[i], listOfProcesses.get(i).getWaitingTime());
+		}
+	}
+
+	@org.junit.Test
+	public void test2() {
+		// Random workloads with idle gaps and ties must match RR exactly
+		Random random = new Random(1);
+		for (int run = 0; run < 50; run++) {
+			ArrayList<Process> expected = new ArrayList<Process>();
+			ProcessTable table = new ProcessTable();
+			for (int i = 0; i < 200; i++) {
+				int at = random.nextInt(2000);
+				int bt = 1 + random.nextInt(20);
+				expected.add(new Process(i + 1, at, bt));
+				table.add(i + 1, at, bt);
+			}
+			int tq = 1 + random.nextInt(6);
+
+			new RR(expected, tq).run();
+			new TableRR(table, tq).run();
+
+			for (int i = 0; i < expected.size(); i++) {
+				assertEquals(expected.get(i).getProcessId(), table.getProcessId(i));
+				assertEquals(expected.get(i).getCompletedTime(), table.getCompletedTime(i));
+				assertEquals(expected.get(i).getTurnaroundTime(), table.getTurnaroundTime(i));
+				assertEquals(expected.get(i).getWaitingTime(), table.getWaitingTime(i));
+			}
+		}
+	}
+
+	@org.junit.Test
+	public void test3() {
+		// Times past the int range
+		long base = 3L * Integer.MAX_VALUE;
+		ProcessTable table = new ProcessTable();
+		table.add(1, base, 4);
+		table.add(2, base + 1, 2);
+
+		new TableRR(table, 2).run();
+
+		assertEquals(base + 6, table.getCompletedTime(0));
+		assertEquals(base + 4, table.getCompletedTime(1));
+		assertEquals(1, table.getWaitingTime(1));
+	}
+
+	@org.junit.Test
+	public void test4() {
+		// Gantt events are the same as the ones RR records
+		ArrayList<Process> listOfProcesses = new ArrayList<Process>();
+		listOfProcesses.add(new Process(1, 0, 1));
+		listOfProcesses.add(new Process(2, 4, 2));
+		listOfProcesses.add(new Process(3, 7, 3));
+
+		RR scheduler = new RR(listOfProcesses, 2);
+		scheduler.run();
+
+		EventLog log = new EventLog();
+		new TableRR(ProcessTable.of(listOfProcesses), 2, log).run();
+
+		EventLog expected = scheduler.getEventLog();
+		assertEquals(expected.size(), log.size());
+		for (int i = 0; i < log.size(); i++) {
+			assertEquals(expected.getPid(i), log.getPid(i));
+			assertEquals(expected.getStart(i), log.getStart(i));
+			assertEquals(expected.getEnd(i), log.getEnd(i));
+		}
+
+		// Idle time between 1 and 4 is a single event, pid 3 runs 7-10 as one merged slice
+		assertEquals(5, log.size());
+		assertTrue(log.isIdle(1));
+		assertEquals(1, log.getStart(1));
+		assertEquals(4, log.getEnd(1));
+		assertEquals(3, log.getPid(4));
+		assertEquals(7, log.getStart(4));
+		assertEquals(10, log.getEnd(4));
+	}
+
+	@org.junit.Test
+	public void test5() {
+		// Skipping rounds gives the same results, counters and expanded events as running every slice
+		Random random = new Random(13);
+		for (int run = 0; run < 50; run++) {
+			ArrayList<Process> expected = new ArrayList<Process>();
+			ProcessTable table = new ProcessTable();
+			int at = 0;
+			for (int i = 0; i < 200; i++) {
+				at += random.nextInt(run % 2 == 0 ? 40 : 400);
+				int bt = 1 + random.nextInt(random.nextInt(10) == 0 ? 2000 : 50);
+				expected.add(new Process(i + 1, at, bt));
+				table.add(i + 1, at, bt);
+			}
+			int tq = 1 + random.nextInt(6);
+
+			RR scheduler = new RR(expected, tq);
+			scheduler.run();
+			TableRR plain = new TableRR(ProcessTable.of(expected), tq);
+			plain.run();
+			EventLog log = new EventLog();
+			TableRR skipping = new TableRR(table, tq, log);
+			skipping.setRoundSkipping(true);
+			skipping.run();
+
+			for (int i = 0; i < expected.size(); i++) {
+				assertEquals(expected.get(i).getProcessId(), table.getProcessId(i));
+				assertEquals(expected.get(i).getCompletedTime(), table.getCompletedTime(i));
+				assertEquals(expected.get(i).getWaitingTime(), table.getWaitingTime(i));
+			}
+			assertEquals(plain.getContextSwitches(), skipping.getContextSwitches());
+			assertEquals(plain.getIdleTime(), skipping.getIdleTime());
+
+			EventLog expectedLog = scheduler.getEventLog();
+			EventLog expanded = log.expand();
+			assertTrue(log.size() < expanded.size());
+			assertEquals(expectedLog.size(), expanded.size());
+			for (int i = 0; i < expanded.size(); i++) {
+				assertEquals(expectedLog.getPid(i), expanded.getPid(i));
+				assertEquals(expectedLog.getStart(i), expanded.getStart(i));
+				assertEquals(expectedLog.getEnd(i), expanded.getEnd(i));
+			}
+		}
+	}
+
+	@org.junit.Test
+	public void test6() {
+		// Three long processes and TQ = 1 take a handful of round events instead of millions of slices
+		ProcessTable table = new ProcessTable();
+		table.add(1, 0, 1000000);
+		table.add(2, 0, 2000000);
+		table.add(3, 5, 3000000);
+
+		ProcessTable expected = new ProcessTable();
+		for (int i = 0; i < table.size(); i++)
+			expected.add(table.getProcessId(i), table.getArrivalTime(i), table.getBurstTime(i));
+		TableRR plain = new TableRR(expected, 1);
+		plain.run();
+
+		EventLog log = new EventLog();
+		TableRR scheduler = new TableRR(table, 1, log);
+		scheduler.setRoundSkipping(true);
+		scheduler.run();
+
+		for (int i = 0; i < table.size(); i++)
+			assertEquals(expected.getCompletedTime(i), table.getCompletedTime(i));
+		assertEquals(2999996, table.getCompletedTime(0));
+		assertEquals(plain.getContextSwitches(), scheduler.getContextSwitches());
+		assertTrue(log.size() < 50);
+	}
+
+	@org.junit.Test
+	public void test7() {
+		// One engine and table reused for many workloads and quanta gives what RR gives
+		Random random = new Random(15);
+		ProcessTable table = new ProcessTable();
+		TableRR engine = new TableRR(table, 1);
+		for (int run = 0; run < 500; run++) {
+			ArrayList<Process> expected = new ArrayList<Process>();
+			engine.reset();
+			table.clear();
+			int size = 1 + random.nextInt(run % 50 == 0 ? 500 : 20);
+			for (int i = 0; i < size; i++) {
+				int at = random.nextInt(100);
+				int bt = 1 + random.nextInt(20);
+				expected.add(new Process(i + 1, at, bt));
+				table.add(i + 1, at, bt);
+			}
+			int tq = 1 + random.nextInt(6);
+			engine.setTimeQuantum(tq);
+			engine.run();
+			new RR(expected, tq).run();
+
+			for (int i = 0; i < expected.size(); i++) {
+				assertEquals(expected.get(i).getProcessId(), table.getProcessId(i));
+				assertEquals(expected.get(i).getCompletedTime(), table.getCompletedTime(i));
+				assertEquals(expected.get(i).getWaitingTime(), table.getWaitingTime(i));
+			}
+		}
+	}
+
+	@org.junit.Test
+	public void test8() {
+		// Once warmed up, rerunning a reused engine allocates nothing
+		assumeTrue(ManagementFactory.getThreadMXBean() instanceof ThreadMXBean);
+		ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+		ProcessTable table = new ProcessTable();
+		TableRR engine = new TableRR(table, 3);
+		Random random = new Random(16);
+		long[] workload = new long[64 * 1000];
+		for (int i = 0; i < workload.length; i++)
+			workload[i] = random.nextInt(i % 2 == 0 ? 200 : 20) + (i % 2);
+
+		long before = 0;
+		for (int pass = 0; pass < 2; pass++) {
+			if (pass == 1)
+				before = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+			for (int run = 0; run < 1000; run++) {
+				engine.reset();
+				table.clear();
+				for (int i = 0; i < 32; i++)
+					table.add(i + 1, workload[run * 64 + 2 * i], workload[run * 64 + 2 * i + 1]);
+				engine.run();
+			}
+		}
+		long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+		assertTrue("Allocated " + allocated + " bytes", allocated < 16 * 1024);
+	}
+}
@@ -0,0 +1,108 @@
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Random;
+
+
+public class TraceTest {
+
+	@org.junit.Test
+	public void test1() throws IOException {
+		// CSV with a header, comments, CR LF and a last line without newline
+		Path csv = Files.createTempFile("trace", ".csv");
+		try {
+			Files.write(csv, "pid,arrival,burst\r\n# comment\n1, 0, 4\r\n\n3,1,1\n2,2,3\n4,3,2\n5,4,5".getBytes(StandardCharsets.US_ASCII));
+
+			// Tiny windows so records cross window boundaries
+			for (long window : new long[]{20, 23, 64, 1 << 20}) {
+				ArrayList<long[]> records = new ArrayList<long[]>();
+				try (MappedTraceReader reader = MappedTraceReader.open(csv, window)) {
+					assertFalse(reader.isBinary());
+					while (reader.next())
+						records.add(new long[]{reader.pid(), reader.arrival(), reader.burst()});
+				}
+				assertEquals(5, records.size());
+				assertArrayEquals(new long[]{1, 0, 4}, records.get(0));
+				assertArrayEquals(new long[]{3, 1, 1}, records.get(1));
+				assertArrayEquals(new long[]{5, 4, 5}, records.get(4));
+			}
+		} finally {
+			Files.deleteIfExists(csv);
+		}
+	}
+
+	@org.junit.Test
+	public void test2() throws IOException {
+		// CSV to binary and back, then streamed through StreamRR the results match RR
+		Random random = new Random(6);
+		ArrayList<Process> expected = new ArrayList<Process>();
+		StringBuilder sb = new StringBuilder();
+		int at = 0;
+		for (int i = 0; i < 1000; i++) {
+			at += random.nextInt(8);
+			int bt = 1 + random.nextInt(20);
+			expected.add(new Process(i + 1, at, bt));
+			sb.append(i + 1).append(',').append(at).append(',').append(bt).append('\n');
+		}
+		new RR(expected, 3).run();
+
+		Path csv = Files.createTempFile("trace", ".csv");
+		Path bin = Files.createTempFile("trace", ".bin");
+		try {
+			Files.write(csv, sb.toString().getBytes(StandardCharsets.US_ASCII));
+			assertEquals(1000, TraceWriter.convert(csv, bin));
+			assertEquals(TraceWriter.HEADER_SIZE + 1000 * TraceWriter.RECORD_SIZE, Files.size(bin));
+
+			try (MappedTraceReader reader = MappedTraceReader.open(bin, 100)) {
+				assertTrue(reader.isBinary());
+				final long[] ct = new long[1001];
+				StreamRR scheduler = new StreamRR(3);
+				scheduler.run(reader, (pid, arrival, burst, completed) -> ct[pid] = completed);
+
+				assertEquals(1000, scheduler.getCompleted());
+				for (Process p : expected)
+					assertEquals(p.getCompletedTime(), ct[p.getProcessId()]);
+			}
+		} finally {
+			Files.deleteIfExists(csv);
+			Files.deleteIfExists(bin);
+		}
+	}
+
+	@org.junit.Test
+	public void test3() throws IOException {
+		// Out of order traces are rejected
+		Path csv = Files.createTempFile("trace", ".csv");
+		try {
+			Files.write(csv, "1,5,1\n2,3,1\n".getBytes(StandardCharsets.US_ASCII));
+			try (MappedTraceReader reader = MappedTraceReader.open(csv)) {
+				assertTrue(reader.next());
+				reader.next();
+				fail("Expected the out of order record to be rejected");
+			} catch (IllegalStateException e) {
+				assertTrue(e.getMessage().contains("order of arrival"));
+			}
+		} finally {
+			Files.deleteIfExists(csv);
+		}
+	}
+
+	@org.junit.Test
+	public void test4() {
+		// Same context switches and idle time as the table engine
+		ProcessTable table = WorkloadGenerator.generate(WorkloadGenerator.Kind.SPARSE, 2000, 7);
+		TableRR engine = new TableRR(table, 4);
+		engine.run();
+
+		StreamRR scheduler = new StreamRR(4);
+		scheduler.run(table.source(), null);
+
+		assertEquals(engine.getContextSwitches(), scheduler.getContextSwitches());
+		assertEquals(engine.getIdleTime(), scheduler.getIdleTime());
+		assertTrue(scheduler.getPeakActive() < 100);
+	}
+}
@@ -0,0 +1,102 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes traces in a fixed width binary format that {@link MappedTraceReader}
+ * reloads without any parsing. All values are little endian:
+ *
+ * header: int magic "RRTR", int version, long number of records
+ * record: int pid, long arrival, long burst
+ */
+public class TraceWriter {
+
+	static final int MAGIC = 0x52545252; // "RRTR" when read little endian
+	static final int VERSION = 1;
+	static final int HEADER_SIZE = 16;
+	static final int RECORD_SIZE = 20;
+
+	private static final int BUFFER_SIZE = 1 << 20;
+
+	private TraceWriter() {
+	}
+
+	/**
+	 * Write every process of the source, returns the number of records
+	 */
+	public static long write(ProcessSource source, Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE,
+				StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE - BUFFER_SIZE % RECORD_SIZE);
+			buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+			// Count is filled in once known
+			buffer.putInt(MAGIC).putInt(VERSION).putLong(0);
+			long count = 0;
+			while (source.next())
+			{
+				if (buffer.remaining() < RECORD_SIZE)
+					flush(channel, buffer);
+				buffer.putInt(source.pid()).putLong(source.arrival()).putLong(source.burst());
+				count++;
+			}
+			flush(channel, buffer);
+
+			buffer.putLong(count).flip();
+			while (buffer.hasRemaining())
+				channel.write(buffer, 8 + buffer.position());
+			return count;
+		}
+	}
+
+	/**
+	 * Convert a CSV trace into the binary format
+	 */
+	public static long convert(Path csv, Path binary) throws IOException {
+		try (MappedTraceReader reader = MappedTraceReader.open(csv)) {
+			return write(reader, binary);
+		}
+	}
+
+	private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining())
+			channel.write(buffer);
+		buffer.clear();
+	}
+
+	/**
+	 * Whether a file starts with the binary trace header
+	 */
+	static boolean isBinary(FileChannel channel) throws IOException {
+		if (channel.size() < HEADER_SIZE)
+			return false;
+		ByteBuffer header = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+		while (header.hasRemaining() && channel.read(header, header.position()) >= 0)
+			;
+		header.flip();
+		if (header.getInt() != MAGIC)
+			return false;
+		int version = header.getInt();
+		if (version != VERSION)
+			throw new IOException("Unsupported trace version " + version);
+		return true;
+	}
+
+	/**
+	 * Usage: TraceWriter <trace.csv> <trace.bin>
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2)
+		{
+			System.err.println("Usage: TraceWriter <trace.csv> <trace.bin>");
+			System.exit(1);
+		}
+		long count = convert(Paths.get(args[0]), Paths.get(args[1]));
+		System.out.printf("%d records written to %s\n", count, args[1]);
+	}
+}
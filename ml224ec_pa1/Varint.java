@@ -0,0 +1,83 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * LEB128 variable length integers, 7 bits per byte with the high bit marking
+ * that more bytes follow. Small values take a single byte. Signed values are
+ * zigzag encoded first so that small negative numbers stay small too.
+ */
+public class Varint {
+
+	private Varint() {
+	}
+
+	public static void writeUnsigned(DataOutput out, long value) throws IOException {
+		while ((value & ~0x7FL) != 0)
+		{
+			out.writeByte((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.writeByte((int) value);
+	}
+
+	public static long readUnsigned(DataInput in) throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7)
+		{
+			int b = in.readUnsignedByte();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				return value;
+		}
+		throw new IOException("Malformed varint");
+	}
+
+	public static void writeSigned(DataOutput out, long value) throws IOException {
+		writeUnsigned(out, (value << 1) ^ (value >> 63));
+	}
+
+	public static long readSigned(DataInput in) throws IOException {
+		long zigzag = readUnsigned(in);
+		return (zigzag >>> 1) ^ -(zigzag & 1);
+	}
+
+	/**
+	 * Encode into a byte array at pos, returns the position after it.
+	 * Needs at most 10 bytes of room.
+	 */
+	public static int putUnsigned(byte[] buffer, int pos, long value) {
+		while ((value & ~0x7FL) != 0)
+		{
+			buffer[pos++] = (byte) ((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		buffer[pos++] = (byte) value;
+		return pos;
+	}
+
+	public static int putSigned(byte[] buffer, int pos, long value) {
+		return putUnsigned(buffer, pos, (value << 1) ^ (value >> 63));
+	}
+
+	/**
+	 * Decode from the position of a buffer, advancing it
+	 */
+	public static long getUnsigned(ByteBuffer buffer) {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7)
+		{
+			int b = buffer.get();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0)
+				return value;
+		}
+		throw new IllegalStateException("Malformed varint");
+	}
+
+	public static long getSigned(ByteBuffer buffer) {
+		long zigzag = getUnsigned(buffer);
+		return (zigzag >>> 1) ^ -(zigzag & 1);
+	}
+}
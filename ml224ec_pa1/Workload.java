@@ -0,0 +1,92 @@
+import java.util.List;
+
+/**
+ * Immutable workload of (pid, arrival, burst) triples in order of arrival.
+ * It is safe to share between threads, every run gets its own fresh
+ * {@link ProcessTable} from {@link #toTable()}.
+ */
+public final class Workload {
+
+	private final String name;
+	private final int[] ids;
+	private final long[] arrivals;
+	private final long[] bursts;
+	private final long fingerprint;
+
+	private Workload(String name, ProcessTable table) {
+		this.name = name;
+		int n = table.size();
+		ids = new int[n];
+		arrivals = new long[n];
+		bursts = new long[n];
+		for (int i = 0; i < n; i++)
+		{
+			ids[i] = table.getProcessId(i);
+			arrivals[i] = table.getArrivalTime(i);
+			bursts[i] = table.getBurstTime(i);
+		}
+		fingerprint = table.fingerprint();
+	}
+
+	/**
+	 * Snapshot the processes of a list, the list itself is left untouched
+	 */
+	public static Workload of(String name, List<Process> processes) {
+		ProcessTable table = ProcessTable.of(processes);
+		table.sortByArrival();
+		return new Workload(name, table);
+	}
+
+	/**
+	 * Snapshot the workload part of a table, results are not copied
+	 */
+	public static Workload of(String name, ProcessTable table) {
+		ProcessTable copy = new ProcessTable(table.size());
+		for (int i = 0; i < table.size(); i++)
+			copy.add(table.getProcessId(i), table.getArrivalTime(i), table.getBurstTime(i));
+		copy.sortByArrival();
+		return new Workload(name, copy);
+	}
+
+	/**
+	 * A new table holding this workload, ready to be scheduled
+	 */
+	public ProcessTable toTable() {
+		ProcessTable table = new ProcessTable(ids.length);
+		for (int i = 0; i < ids.length; i++)
+			table.add(ids[i], arrivals[i], bursts[i]);
+		return table;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * Content hash of the processes, the same as toTable().fingerprint()
+	 */
+	public long fingerprint() {
+		return fingerprint;
+	}
+
+	public int size() {
+		return ids.length;
+	}
+
+	public int getProcessId(int index) {
+		return ids[index];
+	}
+
+	public long getArrivalTime(int index) {
+		return arrivals[index];
+	}
+
+	public long getBurstTime(int index) {
+		return bursts[index];
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%s (%d processes)", name, ids.length);
+	}
+}
@@ -0,0 +1,82 @@
+import java.util.SplittableRandom;
+
+/**
+ * Synthetic workloads for benchmarks and experiments. The same kind, size and
+ * seed always produce the same workload. Process ids are 1 to size.
+ */
+public class WorkloadGenerator {
+
+	public enum Kind {
+		// Steady arrivals with bursts uniform in [1, 2 * mean]
+		UNIFORM,
+		// Steady arrivals with Pareto distributed bursts, a few very long jobs among many short ones
+		HEAVY_TAILED,
+		// Arrivals come in clusters of up to 64 processes at once, then a quiet period
+		BURSTY,
+		// Long idle gaps between arrivals, the CPU is mostly idle. Gaps are at
+		// most MAX_SPARSE_GAP, so even 10^7 processes keep their times in the int
+		// range of Process and RR.
+		SPARSE
+	}
+
+	// Mean burst and mean time between arrivals, keeps the CPU about 80% busy for steady kinds
+	private static final int MEAN_BURST = 8;
+	private static final int MEAN_GAP = 10;
+	private static final int MAX_SPARSE_GAP = MEAN_BURST + 20 * MEAN_GAP - 1;
+
+	private WorkloadGenerator() {
+	}
+
+	public static ProcessTable generate(Kind kind, int size, long seed) {
+		SplittableRandom random = new SplittableRandom(seed);
+		ProcessTable table = new ProcessTable(size);
+
+		long at = 0;
+		int cluster = 0;
+		for (int i = 0; i < size; i++)
+		{
+			long burst;
+			switch (kind)
+			{
+			case UNIFORM:
+				at += random.nextInt(2 * MEAN_GAP + 1);
+				burst = 1 + random.nextInt(2 * MEAN_BURST);
+				break;
+			case HEAVY_TAILED:
+				at += random.nextInt(2 * MEAN_GAP + 1);
+				burst = pareto(random, 1.5, MEAN_BURST / 3.0);
+				break;
+			case BURSTY:
+				if (cluster == 0)
+				{
+					cluster = 1 + random.nextInt(64);
+					at += (long) cluster * MEAN_GAP;
+				}
+				cluster--;
+				burst = 1 + random.nextInt(2 * MEAN_BURST);
+				break;
+			case SPARSE:
+				at += MEAN_BURST + random.nextInt(MAX_SPARSE_GAP - MEAN_BURST + 1);
+				burst = 1 + random.nextInt(2 * MEAN_BURST);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown kind " + kind);
+			}
+			table.add(i + 1, at, burst);
+		}
+		return table;
+	}
+
+	public static Workload workload(Kind kind, int size, long seed) {
+		return Workload.of(String.format("%s-%d", kind, size), generate(kind, size, seed));
+	}
+
+	/**
+	 * Pareto sample with shape alpha and minimum xm, capped to keep totals sane
+	 */
+	private static long pareto(SplittableRandom random, double alpha, double xm) {
+		double u = 1.0 - random.nextDouble();
+		double x = xm / Math.pow(u, 1.0 / alpha);
+		return Math.max(1, (long) Math.min(x, 1e6));
+	}
+}
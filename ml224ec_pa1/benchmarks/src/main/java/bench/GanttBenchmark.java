@@ -0,0 +1,63 @@
+package bench;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import scheduler.EventLog;
+import scheduler.GanttRenderer;
+import scheduler.ProcessTable;
+import scheduler.TableRR;
+import scheduler.WorkloadGenerator;
+
+/**
+ * Cost of rendering the Gantt chart of a finished simulation, separate from
+ * the simulation itself. Charts are downsampled to about 1000 columns and
+ * written to a Writer that discards everything.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class GanttBenchmark {
+
+	@Param({"1000", "10000", "100000", "1000000", "10000000"})
+	int size;
+
+	@Param({"UNIFORM", "HEAVY_TAILED", "BURSTY", "SPARSE"})
+	WorkloadGenerator.Kind kind;
+
+	@Param({"100"})
+	int rows;
+
+	EventLog log;
+	int[] pids;
+	int scale;
+
+	@Setup(Level.Trial)
+	public void simulate() {
+		ProcessTable table = WorkloadGenerator.generate(kind, size, 42);
+		log = new EventLog();
+		new TableRR(table, 4, log).run();
+
+		scale = (int) Math.max(1, log.getEndTime() / 1000);
+		pids = new int[Math.min(rows, size)];
+		for (int i = 0; i < pids.length; i++)
+			pids[i] = i + 1;
+	}
+
+	@Benchmark
+	public void render() throws IOException {
+		new GanttRenderer(log).setScale(scale).setPids(pids).render(Writer.nullWriter());
+	}
+
+	@Benchmark
+	public void renderWindow() throws IOException {
+		long from = log.getEndTime() / 2;
+		new GanttRenderer(log).setWindow(from, from + 1000).render(Writer.nullWriter());
+	}
+}
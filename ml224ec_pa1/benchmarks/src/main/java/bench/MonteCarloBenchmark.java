@@ -0,0 +1,73 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import scheduler.Process;
+import scheduler.ProcessTable;
+import scheduler.RR;
+import scheduler.TableRR;
+
+/**
+ * Many small simulations in a row, as in a Monte Carlo study. Every
+ * invocation draws a fresh random workload and schedules it, either with a
+ * new RR, a new TableRR, or one TableRR and table reused throughout.
+ * Run with the GC profiler to compare the garbage of each.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1)
+public class MonteCarloBenchmark {
+
+	@Param({"8", "32", "128"})
+	int size;
+
+	@Param({"4"})
+	int tq;
+
+	SplittableRandom random;
+	ProcessTable reused;
+	TableRR engine;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		random = new SplittableRandom(42);
+		reused = new ProcessTable(size);
+		engine = new TableRR(reused, tq);
+	}
+
+	@Benchmark
+	public long rr() {
+		ArrayList<Process> processes = new ArrayList<Process>(size);
+		for (int i = 0; i < size; i++)
+			processes.add(new Process(i + 1, random.nextInt(4 * size), 1 + random.nextInt(16)));
+		RR scheduler = new RR(processes, tq);
+		scheduler.run();
+		return processes.get(size - 1).getCompletedTime();
+	}
+
+	@Benchmark
+	public long tableRR() {
+		ProcessTable table = new ProcessTable(size);
+		for (int i = 0; i < size; i++)
+			table.add(i + 1, random.nextInt(4 * size), 1 + random.nextInt(16));
+		new TableRR(table, tq).run();
+		return table.getCompletedTime(size - 1);
+	}
+
+	@Benchmark
+	public long reusedTableRR() {
+		engine.reset();
+		reused.clear();
+		for (int i = 0; i < size; i++)
+			reused.add(i + 1, random.nextInt(4 * size), 1 + random.nextInt(16));
+		engine.run();
+		return reused.getCompletedTime(size - 1);
+	}
+}
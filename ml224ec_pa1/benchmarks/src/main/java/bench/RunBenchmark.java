@@ -0,0 +1,67 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import scheduler.Process;
+import scheduler.ProcessTable;
+import scheduler.RR;
+import scheduler.TableRR;
+import scheduler.WorkloadGenerator;
+
+/**
+ * Cost of one full simulation, object based RR against the table engine.
+ * The workload is reset before every invocation, outside of the measurement.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class RunBenchmark {
+
+	@Param({"1000", "10000", "100000", "1000000", "10000000"})
+	int size;
+
+	@Param({"UNIFORM", "HEAVY_TAILED", "BURSTY", "SPARSE"})
+	WorkloadGenerator.Kind kind;
+
+	@Param({"4"})
+	int tq;
+
+	ProcessTable table;
+	ArrayList<Process> processes;
+
+	@Setup(Level.Trial)
+	public void generate() {
+		table = WorkloadGenerator.generate(kind, size, 42);
+		processes = table.toProcesses();
+	}
+
+	@Setup(Level.Invocation)
+	public void reset() {
+		table.reset();
+		for (Process p : processes)
+		{
+			p.setRemainingBurstTime(p.getBurstTime());
+			p.setIsScheduled(false);
+		}
+	}
+
+	@Benchmark
+	public RR rr() {
+		RR scheduler = new RR(processes, tq);
+		scheduler.run();
+		return scheduler;
+	}
+
+	@Benchmark
+	public TableRR tableRR() {
+		TableRR engine = new TableRR(table, tq);
+		engine.run();
+		return engine;
+	}
+}
@@ -0,0 +1,71 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import scheduler.Process;
+import scheduler.ProcessTable;
+import scheduler.RunStatistics;
+import scheduler.SweepResult;
+import scheduler.TableRR;
+import scheduler.WorkloadGenerator;
+
+/**
+ * Cost of summarising the per process results of a finished simulation
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class StatisticsBenchmark {
+
+	@Param({"1000", "10000", "100000", "1000000", "10000000"})
+	int size;
+
+	@Param({"UNIFORM", "HEAVY_TAILED"})
+	WorkloadGenerator.Kind kind;
+
+	ProcessTable table;
+	ArrayList<Process> processes;
+
+	@Setup(Level.Trial)
+	public void simulate() {
+		table = WorkloadGenerator.generate(kind, size, 42);
+		new TableRR(table, 4).run();
+		processes = table.toProcesses();
+	}
+
+	@Benchmark
+	public SweepResult summarise() {
+		return SweepResult.of("bench", 4, table, 0, 0);
+	}
+
+	/**
+	 * TAT, WT and statistics one Process object at a time, as RR.run() does
+	 */
+	@Benchmark
+	public RunStatistics perObject() {
+		RunStatistics statistics = new RunStatistics();
+		for (Process p : processes)
+		{
+			p.setTurnaroundTime(p.getCompletedTime() - p.getArrivalTime());
+			p.setWaitingTime(p.getTurnaroundTime() - p.getBurstTime());
+			statistics.completed(p.getProcessId(), p.getArrivalTime(), p.getBurstTime(), p.getCompletedTime());
+		}
+		return statistics;
+	}
+
+	/**
+	 * The same over the columns of the table in bulk
+	 */
+	@Benchmark
+	public RunStatistics bulk() {
+		RunStatistics statistics = new RunStatistics();
+		table.computeTimes(statistics);
+		return statistics;
+	}
+}
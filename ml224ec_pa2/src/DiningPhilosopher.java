@@ -1,3 +1,4 @@
+import java.io.IOException;
 import java.text.DecimalFormat;
 import java.util.ArrayList;
 import java.util.concurrent.ExecutorService;
@@ -28,9 +29,19 @@ public class DiningPhilosopher {
 	public boolean RESOLVE_DEADLOCKS = false; // aborts simulation when false when a deadlock is found
 	DeadlockResolver deadlockResolver = null;
 	boolean stopping = false;
+	
+	/*
+	 * Serve live meal counts and rates in the Prometheus text format on
+	 * http://localhost:METRICS_PORT/metrics while the simulation runs, off when negative
+	 */
+	public int METRICS_PORT = -1;
+	MetricsServer metricsServer = null;
 
 	public void start() throws InterruptedException {
 		try {
+			if (METRICS_PORT >= 0)
+				startMetricsServer();
+			
 			/*
 			 * Try to start the deadlock detector and resolver first
 			 */
@@ -70,6 +81,31 @@ public class DiningPhilosopher {
 		} finally {
 			executorService.shutdown();
 			executorService.awaitTermination(10, TimeUnit.MILLISECONDS);
+			if (metricsServer != null)
+				metricsServer.close();
+		}
+	}
+	
+	/*
+	 * Meals are read from the philosophers as they go, nothing is locked
+	 */
+	private void startMetricsServer() {
+		try {
+			metricsServer = new MetricsServer(METRICS_PORT);
+		} catch (IOException e) {
+			System.err.println("Could not start the metrics server: " + e.getMessage());
+			return;
+		}
+		long startTime = System.nanoTime();
+		metricsServer.gauge("philosopher_simulation_seconds", "Time since the simulation started",
+				() -> (System.nanoTime() - startTime) / 1e9);
+		for (Philosopher p : philosophers)
+		{
+			String labels = "philosopher=\"" + p.getId() + "\"";
+			metricsServer.register("philosopher_meals_total", "counter", "Eating turns started",
+					labels, () -> p.getNumberOfEatingTurns());
+			metricsServer.register("philosopher_meal_rate", "gauge", "Eating turns per second since the simulation started",
+					labels, () -> p.getNumberOfEatingTurns() * 1e9 / Math.max(1, System.nanoTime() - startTime));
 		}
 	}
 
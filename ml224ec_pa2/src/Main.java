@@ -7,6 +7,7 @@ public class Main {
     	DiningPhilosopher dp = new DiningPhilosopher(); // create an instance to DiningPhilosopher class
     	dp.DEBUG = true;
     	//dp.RESOLVE_DEADLOCKS = true; // (try) resolving deadlocks when one would occur, else it just aborts
+    	//dp.METRICS_PORT = 9100; // serve live meal rates on http://localhost:9100/metrics
         int simulationTime = 10000;
         int seed = 100;
         if(args.length > 0) // check if parameters are passed as argument
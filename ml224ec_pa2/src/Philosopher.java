@@ -9,7 +9,7 @@ public class Philosopher implements Runnable {
 	
 	private Random randomGenerator = new Random();
 	
-	private int numberOfEatingTurns = 0;
+	private volatile int numberOfEatingTurns = 0; // only written by the worker thread, read live by the metrics server
 	private int numberOfThinkingTurns = 0;
 	private int numberOfHungryTurns = 0;
 